@@ -0,0 +1,46 @@
+#!/bin/bash
+# Measures cold-start time to the first result of the game CLI.
+#
+# Runs a single-seed game RUNS times in a fresh JVM for each configuration
+# and prints the fastest and median wall-clock times. The AppCDS run is
+# skipped if its archive has not been built:
+#
+#   mvn package               # plain jar
+#   mvn -Pappcds package      # adds target/ip1.jsa
+#
+# Environment: JAVA (default: java on PATH), RUNS (default 20),
+# JAVA_OPTS (extra JVM flags for every configuration).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAVA=${JAVA:-java}
+RUNS=${RUNS:-20}
+JAR=target/ip1-1.0-SNAPSHOT.jar
+read -r -a EXTRA <<< "${JAVA_OPTS:-}"
+
+if [ ! -f "$JAR" ]; then
+    echo "missing $JAR: run mvn package first" >&2
+    exit 1
+fi
+
+measure() {
+    local label=$1
+    shift
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        local start end
+        start=$(date +%s%N)
+        "$JAVA" ${EXTRA[@]+"${EXTRA[@]}"} "$@" -jar "$JAR" --seed 1 > /dev/null
+        end=$(date +%s%N)
+        times+=($(( (end - start) / 1000000 )))
+    done
+    local sorted
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    printf '%-8s min %4d ms   median %4d ms   (%d runs)\n' \
+        "$label" "${sorted[0]}" "${sorted[$((RUNS / 2))]}" "$RUNS"
+}
+
+measure default
+if [ -f target/ip1.jsa ]; then
+    measure appcds -XX:SharedArchiveFile=target/ip1.jsa
+fi
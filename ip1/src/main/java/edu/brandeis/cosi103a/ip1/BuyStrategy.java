@@ -0,0 +1,23 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+/**
+ * Decides which card a player buys each turn in Automation: The Game.
+ * 
+ * The game asks the strategy once per turn, after the player has played
+ * their crypto cards, and buys the card it names from the supply.
+ * Strategies are shared between games and threads, so implementations
+ * should not keep per-game state.
+ */
+public interface BuyStrategy {
+    
+    /**
+     * Chooses the card to buy this turn.
+     *
+     * @param supply the supply to buy from
+     * @param player the player who is buying
+     * @param budget the money the player has this turn
+     * @return the name of an available card costing at most budget, or null to buy nothing
+     */
+    String chooseCard(Supply supply, Player player, int budget);
+}
@@ -0,0 +1,255 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Plays a range of seeded games and periodically saves progress to disk,
+ * so a batch that dies partway through can resume where it left off.
+ * 
+ * A checkpoint holds the seed range, the next seed to play and the
+ * GameStatistics so far, in a small binary file with a CRC32 checksum.
+ * It is written to a temporary file, synced, and renamed over the old
+ * checkpoint, and then the directory is synced so the rename itself is
+ * durable. A crash during a write leaves the previous checkpoint intact.
+ * 
+ * Checkpoints are taken between games, so no in-flight game state is
+ * saved; a resumed batch replays at most the game that was interrupted.
+ * The clock is only read every few games and a checkpoint is only written
+ * once the interval has passed, so the added work is one clock read per
+ * 64 games plus one small synced write per interval.
+ */
+public class CheckpointedBatch {
+    
+    private static final int MAGIC = 0x49503143; // "IP1C"
+    private static final int VERSION = 2;
+    private static final long DEFAULT_INTERVAL_MILLIS = 10000;
+    private static final int GAMES_PER_CLOCK_CHECK = 64;
+    
+    private Path checkpointFile;
+    private long fromSeed;
+    private long toSeed;
+    private long intervalNanos;
+    private long nextSeed;
+    private GameStatistics stats;
+    
+    /**
+     * Constructs a CheckpointedBatch that checkpoints every 10 seconds.
+     * Resumes from the checkpoint file if it exists.
+     *
+     * @param checkpointFile the file to save progress in
+     * @param fromSeed the first seed to play
+     * @param toSeed the seed to stop at (exclusive)
+     * @throws IOException if an existing checkpoint cannot be read or is for another range
+     */
+    public CheckpointedBatch(Path checkpointFile, long fromSeed, long toSeed) throws IOException {
+        this(checkpointFile, fromSeed, toSeed, DEFAULT_INTERVAL_MILLIS);
+    }
+    
+    /**
+     * Constructs a CheckpointedBatch. Resumes from the checkpoint file if it exists.
+     *
+     * @param checkpointFile the file to save progress in
+     * @param fromSeed the first seed to play
+     * @param toSeed the seed to stop at (exclusive)
+     * @param intervalMillis the minimum time between checkpoints
+     * @throws IOException if an existing checkpoint cannot be read or is for another range
+     */
+    public CheckpointedBatch(Path checkpointFile, long fromSeed, long toSeed, long intervalMillis)
+            throws IOException {
+        this.checkpointFile = checkpointFile;
+        this.fromSeed = fromSeed;
+        this.toSeed = toSeed;
+        this.intervalNanos = intervalMillis * 1000000;
+        this.nextSeed = fromSeed;
+        this.stats = new GameStatistics();
+        
+        if (Files.exists(checkpointFile)) {
+            readCheckpoint();
+        }
+    }
+    
+    /**
+     * Plays every remaining seed, then writes a final checkpoint.
+     *
+     * @return the statistics of the whole range
+     * @throws IOException if a checkpoint cannot be written
+     */
+    public GameStatistics run() throws IOException {
+        return run(Long.MAX_VALUE);
+    }
+    
+    /**
+     * Plays up to maxGames more seeds, then writes a checkpoint.
+     * Calling it again continues from the next seed.
+     *
+     * @param maxGames the most games to play in this call
+     * @return the statistics of every game played so far
+     * @throws IOException if a checkpoint cannot be written
+     */
+    public GameStatistics run(long maxGames) throws IOException {
+        long stopSeed = toSeed - nextSeed > maxGames ? nextSeed + maxGames : toSeed;
+        long lastCheckpoint = System.nanoTime();
+        int sinceClockCheck = 0;
+        
+        while (nextSeed < stopSeed) {
+            Game game = new Game(nextSeed);
+            game.playGame();
+            stats.record(game);
+            nextSeed++;
+            
+            if (++sinceClockCheck == GAMES_PER_CLOCK_CHECK) {
+                sinceClockCheck = 0;
+                long now = System.nanoTime();
+                if (now - lastCheckpoint >= intervalNanos) {
+                    writeCheckpoint();
+                    lastCheckpoint = now;
+                }
+            }
+        }
+        
+        writeCheckpoint();
+        return stats;
+    }
+    
+    /**
+     * Gets the next seed that will be played.
+     *
+     * @return the next seed
+     */
+    public long getNextSeed() {
+        return nextSeed;
+    }
+    
+    /**
+     * Checks whether every seed in the range has been played.
+     *
+     * @return true if the batch is complete
+     */
+    public boolean isComplete() {
+        return nextSeed >= toSeed;
+    }
+    
+    /**
+     * Gets the statistics of every game played so far.
+     *
+     * @return the statistics
+     */
+    public GameStatistics getStatistics() {
+        return stats;
+    }
+    
+    /**
+     * Writes the current progress to a temporary file and renames it over
+     * the checkpoint file.
+     */
+    private void writeCheckpoint() throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fromSeed);
+            out.writeLong(toSeed);
+            out.writeLong(nextSeed);
+            stats.writeTo(out);
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(checkpointFile.toAbsolutePath().getParent());
+    }
+    
+    /**
+     * Flushes a directory so a rename inside it survives a crash.
+     * Some platforms (notably Windows) cannot open a directory as a
+     * channel; there the rename's durability is left to the file system.
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel dir = channel) {
+            dir.force(true);
+        }
+    }
+    
+    /**
+     * Restores progress from the checkpoint file. The checksum is verified
+     * before anything is parsed, so a damaged file is reported as an
+     * IOException rather than whatever its garbage fields would cause.
+     */
+    private void readCheckpoint() throws IOException {
+        byte[] bytes = Files.readAllBytes(checkpointFile);
+        int payload = bytes.length - Long.BYTES;
+        if (payload < 0) {
+            throw new IOException(checkpointFile + " is corrupt (truncated)");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, payload);
+        if (new DataInputStream(new ByteArrayInputStream(bytes, payload, Long.BYTES)).readLong()
+                != crc.getValue()) {
+            throw new IOException(checkpointFile + " is corrupt (checksum mismatch)");
+        }
+        
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, payload));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException(checkpointFile + " is not a batch checkpoint");
+        }
+        long savedFrom = in.readLong();
+        long savedTo = in.readLong();
+        if (savedFrom != fromSeed || savedTo != toSeed) {
+            throw new IOException(checkpointFile + " is for seeds " + savedFrom + "-" + savedTo
+                                  + ", not " + fromSeed + "-" + toSeed);
+        }
+        long savedNext = in.readLong();
+        if (savedNext < fromSeed || savedNext > toSeed) {
+            throw new IOException(checkpointFile + " has next seed " + savedNext
+                                  + " outside " + fromSeed + "-" + toSeed);
+        }
+        GameStatistics savedStats;
+        try {
+            savedStats = GameStatistics.readFrom(in);
+        } catch (RuntimeException e) {
+            throw new IOException(checkpointFile + " is corrupt", e);
+        }
+        nextSeed = savedNext;
+        stats = savedStats;
+    }
+    
+    /**
+     * Main method to run or resume a checkpointed batch.
+     *
+     * @param args checkpoint file, first seed, end seed (exclusive)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: CheckpointedBatch checkpointFile fromSeed toSeed");
+            System.exit(2);
+        }
+        CheckpointedBatch batch = new CheckpointedBatch(
+                Path.of(args[0]), Long.parseLong(args[1]), Long.parseLong(args[2]));
+        if (batch.getNextSeed() != Long.parseLong(args[1])) {
+            System.out.println("Resuming at seed " + batch.getNextSeed());
+        }
+        System.out.println(batch.run());
+    }
+}
@@ -0,0 +1,307 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Checks that a candidate GameEngine plays exactly the same games as the
+ * reference engine, seed by seed and turn by turn.
+ * 
+ * For each seed both engines are created and stepped together. After
+ * every turn, and before the first, each encodes its position as a
+ * PackedState, and the two encodings must be identical. The packed state
+ * is small enough to compare whole, so no hash collision can hide a
+ * difference. The engines must also agree on when the game ends, and
+ * an exception from either engine counts as a divergence.
+ * 
+ * Seeds are checked in parallel, in chunks of consecutive seeds. The
+ * result is always the lowest diverging seed: once one is found, chunks
+ * that start after it are skipped and the rest finish early.
+ */
+public class DifferentialHarness {
+    
+    private static final int SEEDS_PER_CHUNK = 1024;
+    
+    private LongFunction<? extends GameEngine> reference;
+    private LongFunction<? extends GameEngine> candidate;
+    
+    /**
+     * Constructs a DifferentialHarness that compares a candidate with Game.
+     *
+     * @param candidate creates the candidate engine for a seed
+     */
+    public DifferentialHarness(LongFunction<? extends GameEngine> candidate) {
+        this(Game::new, candidate);
+    }
+    
+    /**
+     * Constructs a DifferentialHarness.
+     *
+     * @param reference creates the trusted engine for a seed
+     * @param candidate creates the engine being checked for a seed
+     */
+    public DifferentialHarness(LongFunction<? extends GameEngine> reference,
+                               LongFunction<? extends GameEngine> candidate) {
+        this.reference = reference;
+        this.candidate = candidate;
+    }
+    
+    /**
+     * Compares the engines on a range of seeds.
+     *
+     * @param fromSeed the first seed to check
+     * @param toSeed the seed to stop at (exclusive)
+     * @return the divergence at the lowest seed, or null if every game matched
+     */
+    public Divergence check(long fromSeed, long toSeed) {
+        AtomicLong firstDivergentSeed = new AtomicLong(Long.MAX_VALUE);
+        long chunks = (toSeed - fromSeed + SEEDS_PER_CHUNK - 1) / SEEDS_PER_CHUNK;
+        
+        return LongStream.range(0, Math.max(chunks, 0)).parallel()
+                .mapToObj(chunk -> {
+                    long start = fromSeed + chunk * SEEDS_PER_CHUNK;
+                    long end = Math.min(start + SEEDS_PER_CHUNK, toSeed);
+                    long[] states = new long[PackedState.WORDS * 3];
+                    for (long seed = start; seed < end && seed < firstDivergentSeed.get(); seed++) {
+                        Divergence divergence = checkSeed(seed, states);
+                        if (divergence != null) {
+                            firstDivergentSeed.accumulateAndGet(seed, Math::min);
+                            return divergence;
+                        }
+                    }
+                    return null;
+                })
+                .filter(Objects::nonNull)
+                .min(Comparator.comparingLong(Divergence::getSeed))
+                .orElse(null);
+    }
+    
+    /**
+     * Steps both engines for one seed until they differ or both finish.
+     * An exception from either engine ends the check for this seed and is
+     * reported as a divergence, so the seed and turn are not lost.
+     *
+     * @param seed the seed
+     * @param states scratch space for three packed states: the reference's,
+     *               the candidate's and the last position both agreed on
+     * @return the divergence, or null if the games matched
+     */
+    private Divergence checkSeed(long seed, long[] states) {
+        int candidateBase = PackedState.WORDS;
+        int agreedBase = PackedState.WORDS * 2;
+        boolean agreed = false;
+        int turn = 0;
+        String engine = "reference";
+        
+        try {
+            GameEngine expected = reference.apply(seed);
+            engine = "candidate";
+            GameEngine actual = candidate.apply(seed);
+            
+            for (; ; turn++) {
+                engine = "reference";
+                expected.encodeState(states, 0);
+                engine = "candidate";
+                actual.encodeState(states, candidateBase);
+                if (!PackedState.equals(states, 0, states, candidateBase)) {
+                    return new Divergence(seed, turn, "positions differ", states, agreed, null);
+                }
+                System.arraycopy(states, 0, states, agreedBase, PackedState.WORDS);
+                agreed = true;
+                
+                engine = "reference";
+                boolean expectedPlayed = expected.step();
+                engine = "candidate";
+                boolean actualPlayed = actual.step();
+                if (expectedPlayed != actualPlayed) {
+                    engine = "reference";
+                    expected.encodeState(states, 0);
+                    engine = "candidate";
+                    actual.encodeState(states, candidateBase);
+                    return new Divergence(seed, turn + 1, expectedPlayed
+                            ? "candidate ended the game early" : "candidate played past the end",
+                            states, agreed, null);
+                }
+                if (!expectedPlayed) {
+                    return null;
+                }
+            }
+        } catch (RuntimeException e) {
+            return new Divergence(seed, turn, engine + " threw " + e, states, agreed, e);
+        }
+    }
+    
+    /**
+     * The first point at which the candidate engine played a different game.
+     */
+    public static class Divergence {
+        
+        private long seed;
+        private int turn;
+        private String reason;
+        private long[] expectedState;
+        private long[] actualState;
+        private long[] agreedState;
+        private RuntimeException error;
+        
+        private Divergence(long seed, int turn, String reason, long[] states, boolean agreed,
+                           RuntimeException error) {
+            this.seed = seed;
+            this.turn = turn;
+            this.reason = reason;
+            this.error = error;
+            if (error == null) {
+                this.expectedState = Arrays.copyOfRange(states, 0, PackedState.WORDS);
+                this.actualState = Arrays.copyOfRange(states, PackedState.WORDS, PackedState.WORDS * 2);
+            }
+            if (agreed) {
+                this.agreedState = Arrays.copyOfRange(states, PackedState.WORDS * 2, PackedState.WORDS * 3);
+            }
+        }
+        
+        /**
+         * Gets the seed of the game that diverged.
+         * @return the seed
+         */
+        public long getSeed() {
+            return seed;
+        }
+        
+        /**
+         * Gets the number of turns played when the games differed,
+         * where 0 means the starting positions already differed.
+         * @return the turn count
+         */
+        public int getTurn() {
+            return turn;
+        }
+        
+        /**
+         * Gets what went wrong.
+         * @return a short description
+         */
+        public String getReason() {
+            return reason;
+        }
+        
+        /**
+         * Gets the reference engine's position.
+         * @return a copy of its packed state, or null if an engine threw
+         */
+        public long[] getExpectedState() {
+            return expectedState == null ? null : expectedState.clone();
+        }
+        
+        /**
+         * Gets the candidate engine's position.
+         * @return a copy of its packed state, or null if an engine threw
+         */
+        public long[] getActualState() {
+            return actualState == null ? null : actualState.clone();
+        }
+        
+        /**
+         * Gets the last position both engines agreed on.
+         * @return a copy of the packed state, or null if they never agreed
+         */
+        public long[] getAgreedState() {
+            return agreedState == null ? null : agreedState.clone();
+        }
+        
+        /**
+         * Gets the exception an engine threw.
+         * @return the exception, or null if both engines kept running
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+        
+        /**
+         * Formats the divergence with both full positions and the fields that differ.
+         * @return a multi-line report
+         */
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append("seed ").append(seed).append(", after ").append(turn)
+                .append(" turns: ").append(reason).append('\n');
+            text.append("  agreed:   ").append(agreedState == null
+                    ? "never" : PackedState.toString(agreedState, 0));
+            if (expectedState == null) {
+                return text.toString();
+            }
+            text.append('\n');
+            text.append("  expected: ").append(PackedState.toString(expectedState, 0)).append('\n');
+            text.append("  actual:   ").append(PackedState.toString(actualState, 0));
+            
+            int[] expected = new int[PackedState.DECODED_LENGTH];
+            int[] actual = new int[PackedState.DECODED_LENGTH];
+            PackedState.decode(expectedState, 0, expected);
+            PackedState.decode(actualState, 0, actual);
+            for (int i = 0; i < expected.length; i++) {
+                if (expected[i] != actual[i]) {
+                    text.append("\n  differs: ").append(fieldName(i)).append(" expected ")
+                        .append(expected[i]).append(" but was ").append(actual[i]);
+                }
+            }
+            return text.toString();
+        }
+        
+        /**
+         * Names a field of the array filled by PackedState.decode().
+         */
+        private static String fieldName(int index) {
+            if (index == PackedState.DECODED_LENGTH - 1) {
+                return "player to move";
+            }
+            String card = Supply.getCardName(index % Supply.CARD_TYPES);
+            int group = index / Supply.CARD_TYPES;
+            if (group == 0) {
+                return "supply " + card;
+            }
+            String[] piles = {"draw", "hand", "discard"};
+            return "p" + (1 + (group - 1) / 3) + " " + piles[(group - 1) % 3] + " " + card;
+        }
+    }
+    
+    /**
+     * Main method to check a candidate engine against Game.
+     *
+     * @param args candidate class (a GameEngine with a public constructor
+     *             taking a long seed), first seed, end seed (exclusive)
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        if (args.length != 3) {
+            System.err.println("usage: DifferentialHarness candidateClass fromSeed toSeed");
+            System.exit(2);
+        }
+        Constructor<? extends GameEngine> constructor =
+                Class.forName(args[0]).asSubclass(GameEngine.class).getConstructor(long.class);
+        long fromSeed = Long.parseLong(args[1]);
+        long toSeed = Long.parseLong(args[2]);
+        
+        DifferentialHarness harness = new DifferentialHarness(seed -> {
+            try {
+                return constructor.newInstance(seed);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create " + args[0], e);
+            }
+        });
+        long start = System.nanoTime();
+        Divergence divergence = harness.check(fromSeed, toSeed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        if (divergence == null) {
+            System.out.printf("%d games matched in %.1f s%n", toSeed - fromSeed, seconds);
+        } else {
+            System.out.println("Diverged at " + divergence);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+/**
+ * Configures when a game of Automation: The Game stops.
+ * 
+ * A game always ends when all Framework cards are purchased or the turn
+ * limit is reached. The other rules are optional and disabled with 0:
+ * - emptyPiles: end once this many supply piles are empty
+ * - scoreLead: end once one player owns this many more automation points;
+ *   that player is the winner (see Game.getWinner())
+ * - stallTurns: end once this many turns in a row bought nothing
+ * 
+ * Every rule only looks at counters the game keeps up to date, so checking
+ * the policy costs constant time per turn.
+ */
+public class EndPolicy {
+    
+    /** Default turn limit, matching the original game loop. */
+    public static final int DEFAULT_MAX_TURNS = 1000;
+    
+    private int maxTurns;
+    private int emptyPiles;
+    private int scoreLead;
+    private int stallTurns;
+    
+    /**
+     * Constructs an EndPolicy with the specified limits.
+     *
+     * @param maxTurns the maximum number of turns (must be positive)
+     * @param emptyPiles the number of empty supply piles that ends the game, or 0 to disable
+     * @param scoreLead the automation point lead that ends the game, or 0 to disable
+     * @param stallTurns the number of turns without a purchase that ends the game, or 0 to disable
+     */
+    public EndPolicy(int maxTurns, int emptyPiles, int scoreLead, int stallTurns) {
+        if (maxTurns <= 0) {
+            throw new IllegalArgumentException("maxTurns must be positive: " + maxTurns);
+        }
+        if (emptyPiles < 0 || scoreLead < 0 || stallTurns < 0) {
+            throw new IllegalArgumentException("limits must not be negative");
+        }
+        this.maxTurns = maxTurns;
+        this.emptyPiles = emptyPiles;
+        this.scoreLead = scoreLead;
+        this.stallTurns = stallTurns;
+    }
+    
+    /**
+     * Creates the standard policy: the game ends when all Framework cards
+     * are purchased or after 1000 turns.
+     *
+     * @return the standard end policy
+     */
+    public static EndPolicy standard() {
+        return new EndPolicy(DEFAULT_MAX_TURNS, 0, 0, 0);
+    }
+    
+    /**
+     * Checks whether the game should end after a turn.
+     * Rules are checked in the order Frameworks, empty piles, score lead,
+     * stall, turn limit; the first one that applies is reported.
+     *
+     * @param supply the game's supply
+     * @param pointLead the absolute difference in owned automation points
+     * @param turnsPlayed the number of turns played so far
+     * @param turnsSincePurchase the number of consecutive turns without a purchase
+     * @return the reason the game ends, or null if it continues
+     */
+    public EndReason check(Supply supply, int pointLead, int turnsPlayed, int turnsSincePurchase) {
+        if (supply.isGameOver()) {
+            return EndReason.FRAMEWORKS_EXHAUSTED;
+        }
+        if (emptyPiles > 0 && supply.getEmptyPileCount() >= emptyPiles) {
+            return EndReason.PILES_EXHAUSTED;
+        }
+        if (scoreLead > 0 && pointLead >= scoreLead) {
+            return EndReason.SCORE_LEAD;
+        }
+        if (stallTurns > 0 && turnsSincePurchase >= stallTurns) {
+            return EndReason.STALL;
+        }
+        if (turnsPlayed >= maxTurns) {
+            return EndReason.TURN_LIMIT;
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the maximum number of turns.
+     *
+     * @return the turn limit
+     */
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+    
+    /**
+     * Gets the number of empty supply piles that ends the game.
+     *
+     * @return the empty pile limit, or 0 if disabled
+     */
+    public int getEmptyPiles() {
+        return emptyPiles;
+    }
+    
+    /**
+     * Gets the automation point lead that ends the game.
+     *
+     * @return the score lead cutoff, or 0 if disabled
+     */
+    public int getScoreLead() {
+        return scoreLead;
+    }
+    
+    /**
+     * Gets the number of turns without a purchase that ends the game.
+     *
+     * @return the stall limit, or 0 if disabled
+     */
+    public int getStallTurns() {
+        return stallTurns;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+/**
+ * The rule that ended a game of Automation: The Game.
+ * 
+ * Every finished game reports exactly one reason so batch results can be
+ * split by how each game stopped:
+ * - FRAMEWORKS_EXHAUSTED: all Framework cards were purchased (the normal ending)
+ * - PILES_EXHAUSTED: the configured number of supply piles ran out
+ * - SCORE_LEAD: one player led by at least the configured number of points
+ * - STALL: no card was purchased for the configured number of turns
+ * - TURN_LIMIT: the maximum number of turns was reached
+ */
+public enum EndReason {
+    FRAMEWORKS_EXHAUSTED,
+    PILES_EXHAUSTED,
+    SCORE_LEAD,
+    STALL,
+    TURN_LIMIT
+}
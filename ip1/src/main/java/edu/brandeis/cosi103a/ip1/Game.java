@@ -10,17 +10,67 @@ import java.util.Random;
  * 
  * The game involves two automated players competing to accumulate
  * automation points by purchasing and playing cards.
- * The game ends when all Framework cards are purchased.
+ * The game's EndPolicy decides when it stops: always once all Framework
+ * cards are purchased or the turn limit is reached, and optionally once
+ * enough supply piles are empty, one player leads by enough points, or
+ * enough turns in a row pass without a purchase. getEndReason() reports
+ * which rule ended the game. See getWinner() for how a game that ended on
+ * the score lead is scored.
  */
-public class Game {
-    
-    private static final int MAX_TURNS = 1000;
+public class Game implements GameEngine {
     
+    private EndPolicy endPolicy;
     private Supply supply;
     private Player player1;
     private Player player2;
+    private BuyStrategy player1Strategy;
+    private BuyStrategy player2Strategy;
     private Player currentPlayer;
     private Player otherPlayer;
+    private Player startingPlayer;
+    private int turnsPlayed;
+    private int turnsSincePurchase;
+    private int[] player1Purchases;
+    private int[] player2Purchases;
+    private String lastPurchase;
+    private EndReason endReason;
+    private TurnProfiler.GameEndEvent endEvent;
+    
+    /**
+     * Constructs a Game that uses the standard end policy.
+     */
+    public Game() {
+        this(EndPolicy.standard());
+    }
+    
+    /**
+     * Constructs a Game with the standard end policy whose shuffles and
+     * starting player are fixed by a seed.
+     *
+     * @param seed the seed for the uniform random source
+     */
+    public Game(long seed) {
+        this(EndPolicy.standard(), new UniformRandomSource(seed));
+    }
+    
+    /**
+     * Constructs a Game that uses an unseeded uniform random source.
+     *
+     * @param endPolicy the rules that decide when the game stops
+     */
+    public Game(EndPolicy endPolicy) {
+        this(endPolicy, new UniformRandomSource(new Random()));
+    }
+    
+    /**
+     * Constructs a Game where both players buy greedily.
+     *
+     * @param endPolicy the rules that decide when the game stops
+     * @param random the source of all shuffle and starting player choices
+     */
+    public Game(EndPolicy endPolicy, RandomSource random) {
+        this(endPolicy, random, new GreedyBuyStrategy(), new GreedyBuyStrategy());
+    }
     
     /**
      * Constructs a Game and initializes all game state.
@@ -28,20 +78,32 @@ public class Game {
      * - Creates supply with all cards
      * - Creates two players with starter decks
      * - Randomly selects the starting player
+     *
+     * @param endPolicy the rules that decide when the game stops
+     * @param random the source of all shuffle and starting player choices
+     * @param player1Strategy how player 1 chooses cards to buy
+     * @param player2Strategy how player 2 chooses cards to buy
      */
-    public Game() {
+    public Game(EndPolicy endPolicy, RandomSource random,
+                BuyStrategy player1Strategy, BuyStrategy player2Strategy) {
+        this.endPolicy = endPolicy;
+        this.player1Strategy = player1Strategy;
+        this.player2Strategy = player2Strategy;
         this.supply = new Supply();
-        this.player1 = new Player(createStarterDeck());
-        this.player2 = new Player(createStarterDeck());
+        this.player1Purchases = new int[Supply.CARD_TYPES];
+        this.player2Purchases = new int[Supply.CARD_TYPES];
+        this.player1 = new Player(createStarterDeck(), random.forSeat(1));
+        this.player2 = new Player(createStarterDeck(), random.forSeat(2));
         
         // Randomly select starting player
-        if (new Random().nextBoolean()) {
+        if (random.player1Starts()) {
             this.currentPlayer = player1;
             this.otherPlayer = player2;
         } else {
             this.currentPlayer = player2;
             this.otherPlayer = player1;
         }
+        this.startingPlayer = currentPlayer;
     }
     
     /**
@@ -70,25 +132,49 @@ public class Game {
      * 
      * Turn sequence:
      * 1. Play all cryptocurrency cards to get money
-     * 2. Buy the most expensive affordable card (goes directly to discard pile)
+     * 2. Buy the card chosen by the player's strategy (goes directly to discard pile)
      * 3. Cleanup (discard hand and draw new hand)
      * 4. Switch to the other player
      */
     private void playTurn() {
+        TurnProfiler profiler = TurnProfiler.ENABLED ? TurnProfiler.startTurn() : null;
+        long time = profiler != null ? System.nanoTime() : 0;
+        
         // Step 1: Play cryptos to get money
         int money = currentPlayer.playCryptos();
+        if (profiler != null) {
+            time = profiler.record(TurnProfiler.Phase.PLAY_CRYPTOS, time);
+        }
         
-        // Step 2: Buy the most expensive affordable card
-        Card boughtCard = buyMostExpensiveAffordable(money);
+        // Step 2: Buy the card the player's strategy chooses
+        Card boughtCard = buyChosenCard(money);
+        if (profiler != null) {
+            time = profiler.record(TurnProfiler.Phase.BUY, time);
+        }
         
         // Step 3: Bought cards go directly to discard pile
+        lastPurchase = boughtCard != null ? boughtCard.getName() : null;
         if (boughtCard != null) {
             currentPlayer.addToDiscardPile(boughtCard);
+            int[] purchases = currentPlayer == player1 ? player1Purchases : player2Purchases;
+            purchases[Supply.cardIndex(boughtCard.getName())]++;
+            turnsSincePurchase = 0;
+        } else {
+            turnsSincePurchase++;
+        }
+        if (profiler != null) {
+            time = profiler.record(TurnProfiler.Phase.ADD_TO_DISCARD, time);
         }
         
         // Step 4: Cleanup - discard hand and draw new hand
         currentPlayer.cleanup();
+        if (profiler != null) {
+            time = profiler.record(TurnProfiler.Phase.CLEANUP, time);
+        }
         currentPlayer.drawHand();
+        if (profiler != null) {
+            profiler.record(TurnProfiler.Phase.DRAW_HAND, time);
+        }
         
         // Step 5: Switch players
         Player temp = currentPlayer;
@@ -97,44 +183,60 @@ public class Game {
     }
     
     /**
-     * Finds and buys the most expensive card from supply that the player can afford.
-     * 
-     * Checks cards in order of typical cost (highest to lowest):
-     * Framework (8), Dogecoin (6), Module (5), Ethereum (3), Method (2), Bitcoin (0)
+     * Asks the current player's strategy which card to buy and buys it.
      * 
      * @param budget the amount of money the player has
-     * @return the purchased card, or null if no card is affordable
+     * @return the purchased card, or null if the strategy bought nothing
+     * @throws IllegalStateException if the strategy chose a card that is
+     *         unavailable or costs more than the budget
      */
-    private Card buyMostExpensiveAffordable(int budget) {
-        String[] cardOrder = {"Framework", "Dogecoin", "Module", "Ethereum", "Method", "Bitcoin"};
+    private Card buyChosenCard(int budget) {
+        BuyStrategy strategy = currentPlayer == player1 ? player1Strategy : player2Strategy;
+        String cardName = strategy.chooseCard(supply, currentPlayer, budget);
+        if (cardName == null) {
+            return null;
+        }
         
-        for (String cardName : cardOrder) {
-            if (supply.isAvailable(cardName)) {
-                int cost = supply.getCardCost(cardName);
-                if (cost >= 0 && cost <= budget) {
-                    return supply.buyCard(cardName);
-                }
-            }
+        int cost = supply.getCardCost(cardName);
+        if (!supply.isAvailable(cardName) || cost < 0 || cost > budget) {
+            throw new IllegalStateException("Strategy chose " + cardName
+                                            + " which cannot be bought with " + budget);
         }
-        return null;
+        return supply.buyCard(cardName);
     }
     
     /**
-     * Checks if the game is over.
-     * Game ends when all Framework cards have been purchased.
+     * Checks if the game is over according to the end policy.
+     * Records the rule that ended the game the first time one applies.
      * 
      * @return true if the game is over, false otherwise
      */
     private boolean isGameOver() {
-        return supply.isGameOver();
+        if (endReason == null) {
+            int pointLead = Math.abs(player1.getOwnedAutomationPoints()
+                    - player2.getOwnedAutomationPoints());
+            endReason = endPolicy.check(supply, pointLead, turnsPlayed, turnsSincePurchase);
+        }
+        return endReason != null;
     }
     
     /**
      * Determines the winner based on automation points.
+     * Player 1 wins ties.
+     * 
+     * Games are scored by the automation cards in each final hand, but the
+     * score lead rule measures every card a player owns, because a single
+     * hand swings too much to show who is ahead. A game ended by that rule
+     * is won by the player it found ahead, even if the other player's
+     * final hand is worth more.
      * 
      * @return the player with the highest automation points
      */
-    private Player getWinner() {
+    public Player getWinner() {
+        if (endReason == EndReason.SCORE_LEAD) {
+            return player1.getOwnedAutomationPoints() >= player2.getOwnedAutomationPoints()
+                    ? player1 : player2;
+        }
         int points1 = player1.getTotalAutomationPoints();
         int points2 = player2.getTotalAutomationPoints();
         
@@ -143,20 +245,103 @@ public class Game {
     
     /**
      * Plays the complete game from start to finish.
-     * Continues until all Framework cards are purchased or max turns reached.
+     * Continues until a rule of the end policy applies.
      * 
      * @return the winning player
      */
     public Player playGame() {
-        int turnCount = 0;
-        while (!isGameOver() && turnCount < MAX_TURNS) {
-            playTurn();
-            turnCount++;
+        while (step()) {
+            // Keep playing until a rule of the end policy applies
         }
-        
         return getWinner();
     }
     
+    /**
+     * Plays a single turn, unless the game is already over.
+     * Lets callers stop partway through a game once they have seen enough.
+     * 
+     * @return true if a turn was played, false if the game is over
+     */
+    @Override
+    public boolean step() {
+        if (TurnProfiler.ENABLED && turnsPlayed == 0 && endReason == null && endEvent == null) {
+            startProfiledGame();
+        }
+        if (isGameOver()) {
+            if (TurnProfiler.ENABLED && endEvent != null) {
+                endProfiledGame();
+            }
+            return false;
+        }
+        playTurn();
+        turnsPlayed++;
+        return true;
+    }
+    
+    /**
+     * Emits the JFR GameStart event and begins timing the GameEnd event.
+     * Called from the first step(), so games driven turn by turn are
+     * profiled the same way as games run by playGame().
+     */
+    private void startProfiledGame() {
+        TurnProfiler.GameStartEvent startEvent = new TurnProfiler.GameStartEvent();
+        startEvent.player1Starts = startingPlayer == player1;
+        startEvent.commit();
+        endEvent = new TurnProfiler.GameEndEvent();
+        endEvent.begin();
+    }
+    
+    /**
+     * Commits the GameEnd event once, when step() first finds the game over.
+     */
+    private void endProfiledGame() {
+        endEvent.turns = turnsPlayed;
+        endEvent.endReason = endReason.name();
+        endEvent.player1Points = player1.getTotalAutomationPoints();
+        endEvent.player2Points = player2.getTotalAutomationPoints();
+        endEvent.winner = getWinner() == player1 ? 1 : 2;
+        endEvent.commit();
+        endEvent = null;
+    }
+    
+    /**
+     * Encodes the current position with PackedState.
+     *
+     * @param words the array to write into
+     * @param base the index of the first of PackedState.WORDS longs to write
+     */
+    @Override
+    public void encodeState(long[] words, int base) {
+        PackedState.encode(this, words, base);
+    }
+    
+    /**
+     * Gets the name of the card bought on the most recent turn.
+     * 
+     * @return the card name, or null if nothing was bought or no turn has been played
+     */
+    public String getLastPurchase() {
+        return lastPurchase;
+    }
+    
+    /**
+     * Gets the rule that ended the game.
+     * 
+     * @return the end reason, or null if the game has not ended
+     */
+    public EndReason getEndReason() {
+        return endReason;
+    }
+    
+    /**
+     * Gets the number of turns played so far.
+     * 
+     * @return the turn count
+     */
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+    
     /**
      * Gets player 1 (for game result display).
      * @return player 1
@@ -174,24 +359,46 @@ public class Game {
     }
     
     /**
-     * Main method to run the game.
+     * Gets the supply the game buys from.
+     * @return the supply
+     */
+    public Supply getSupply() {
+        return supply;
+    }
+    
+    /**
+     * Gets how many cards of one type a player bought during the game.
+     * 
+     * @param seat the player number, 1 or 2
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the number of cards bought
+     */
+    public int getPurchaseCount(int seat, int cardIndex) {
+        return seat == 1 ? player1Purchases[cardIndex] : player2Purchases[cardIndex];
+    }
+    
+    /**
+     * Gets the player whose turn is next.
+     * @return the current player
+     */
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+    
+    /**
+     * Gets the player who took the first turn.
+     * @return the starting player
+     */
+    public Player getStartingPlayer() {
+        return startingPlayer;
+    }
+    
+    /**
+     * Main method to run the game. Kept so existing scripts still work;
+     * see GameCli for the options.
      */
     public static void main(String[] args) {
-        System.out.println("=================================");
-        System.out.println("   Automation: The Game Start    ");
-        System.out.println("=================================\n");
-        
-        Game game = new Game();
-        Player winner = game.playGame();
-        
-        System.out.println("\n=================================");
-        System.out.println("           GAME OVER!            ");
-        System.out.println("=================================");
-        System.out.println("\nFinal Results:");
-        System.out.println("Player 1 Automation Points: " + game.getPlayer1().getTotalAutomationPoints());
-        System.out.println("Player 2 Automation Points: " + game.getPlayer2().getTotalAutomationPoints());
-        System.out.println("\n🎉 Winner: " + (winner == game.getPlayer1() ? "Player 1" : "Player 2") + " 🎉");
-        System.out.println("=================================\n");
+        GameCli.main(args);
     }
 }
 
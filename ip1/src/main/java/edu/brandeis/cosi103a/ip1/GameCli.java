@@ -0,0 +1,159 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Command line front end for playing seeded games of Automation: The Game.
+ * 
+ * Usage: GameCli [--seed N] [--games N] [--strategy greedy|FILE] [--format text|json|csv]
+ * 
+ * - --seed: the first seed to play (default: random)
+ * - --games: how many consecutive seeds to play (default 1)
+ * - --strategy: "greedy", or a file holding LinearBuyStrategy weights as
+ *   printed by PolicyTrainer; both players use it (default greedy)
+ * - --format: one line of text per game, one JSON object per line, or
+ *   CSV with a header row (default text)
+ * 
+ * Scripts call this many times for single games, so startup matters
+ * more than throughput. It sticks to plain loops and StringBuilder
+ * rather than streams, lambdas or string concatenation, which each
+ * bootstrap extra classes on first use. See the appcds build profile
+ * for an archive that cuts startup further.
+ */
+public class GameCli {
+    
+    private static final String USAGE =
+            "usage: GameCli [--seed N] [--games N] [--strategy greedy|FILE] [--format text|json|csv]";
+    
+    private long seed;
+    private long games;
+    private BuyStrategy strategy;
+    private String format;
+    
+    /**
+     * Constructs a GameCli from command line arguments.
+     *
+     * @param args the arguments
+     * @throws IllegalArgumentException if an argument is unknown or invalid
+     * @throws IOException if the strategy file cannot be read
+     */
+    GameCli(String[] args) throws IOException {
+        this.seed = new Random().nextLong();
+        this.games = 1;
+        this.strategy = new GreedyBuyStrategy();
+        this.format = "text";
+        
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(new StringBuilder("missing value for ")
+                        .append(flag).toString());
+            }
+            String value = args[++i];
+            switch (flag) {
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--games":
+                    games = Long.parseLong(value);
+                    if (games < 1) {
+                        throw new IllegalArgumentException("--games must be at least 1");
+                    }
+                    break;
+                case "--strategy":
+                    strategy = value.equals("greedy") ? new GreedyBuyStrategy()
+                            : LinearBuyStrategy.parse(Files.readString(Path.of(value)).trim());
+                    break;
+                case "--format":
+                    if (!value.equals("text") && !value.equals("json") && !value.equals("csv")) {
+                        throw new IllegalArgumentException(new StringBuilder("unknown format ")
+                                .append(value).toString());
+                    }
+                    format = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException(new StringBuilder("unknown option ")
+                            .append(flag).toString());
+            }
+        }
+    }
+    
+    /**
+     * Plays the games and prints one result per game.
+     *
+     * @param out where to print the results
+     */
+    void run(PrintStream out) {
+        StringBuilder line = new StringBuilder(128);
+        if (format.equals("csv")) {
+            out.println("seed,winner,player1Points,player2Points,turns,endReason");
+        }
+        for (long i = 0; i < games; i++) {
+            long gameSeed = seed + i;
+            Game game = new Game(EndPolicy.standard(), new UniformRandomSource(gameSeed), strategy, strategy);
+            game.playGame();
+            
+            line.setLength(0);
+            format(line, gameSeed, game);
+            out.println(line);
+        }
+    }
+    
+    /**
+     * Formats one finished game in the chosen format.
+     */
+    private void format(StringBuilder line, long gameSeed, Game game) {
+        int winner = game.getWinner() == game.getPlayer1() ? 1 : 2;
+        int points1 = game.getPlayer1().getTotalAutomationPoints();
+        int points2 = game.getPlayer2().getTotalAutomationPoints();
+        String endReason = game.getEndReason().name();
+        
+        switch (format) {
+            case "json":
+                line.append("{\"seed\":").append(gameSeed)
+                    .append(",\"winner\":").append(winner)
+                    .append(",\"player1Points\":").append(points1)
+                    .append(",\"player2Points\":").append(points2)
+                    .append(",\"turns\":").append(game.getTurnsPlayed())
+                    .append(",\"endReason\":\"").append(endReason).append("\"}");
+                break;
+            case "csv":
+                line.append(gameSeed).append(',').append(winner)
+                    .append(',').append(points1).append(',').append(points2)
+                    .append(',').append(game.getTurnsPlayed()).append(',').append(endReason);
+                break;
+            default:
+                line.append("Seed ").append(gameSeed).append(": Player ").append(winner)
+                    .append(" wins ").append(points1).append('-').append(points2)
+                    .append(" after ").append(game.getTurnsPlayed())
+                    .append(" turns (").append(endReason).append(')');
+        }
+    }
+    
+    /**
+     * Main method to play games from the command line.
+     *
+     * @param args the options described above
+     */
+    public static void main(String[] args) {
+        GameCli cli;
+        try {
+            cli = new GameCli(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        cli.run(System.out);
+        
+        if (TurnProfiler.ENABLED) {
+            TurnProfiler.report(System.out);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+/**
+ * One seeded game of Automation: The Game, played a turn at a time.
+ * 
+ * Game is the reference engine. Faster implementations (primitive piles,
+ * array-indexed supplies, batched engines) implement this interface too,
+ * so DifferentialHarness can check that they play exactly the same game
+ * as Game for the same seed. Positions are compared through PackedState,
+ * which is the same for any engine however it stores its cards.
+ */
+public interface GameEngine {
+    
+    /**
+     * Plays a single turn, unless the game is already over.
+     *
+     * @return true if a turn was played, false if the game is over
+     */
+    boolean step();
+    
+    /**
+     * Encodes the current position.
+     *
+     * @param words the array to write into
+     * @param base the index of the first of PackedState.WORDS longs to write
+     */
+    void encodeState(long[] words, int base);
+}
@@ -0,0 +1,197 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.Arrays;
+
+/**
+ * The outcome of one seeded game of Automation: The Game, played lazily.
+ * 
+ * Nothing is played when the record is created. Each query plays only
+ * as many turns as it needs to answer, so a filter on the early turns
+ * rejects most games without finishing them. Turns are numbered from 0
+ * across both players, in the order they are played, the same way
+ * Game.getTurnsPlayed() counts them.
+ * 
+ * A record is not thread safe, but streams from Simulations only ever
+ * hand each record to one thread.
+ */
+public class GameRecord {
+    
+    private static final byte NO_PURCHASE = -1;
+    
+    private final long seed;
+    private final Game game;
+    private final int startingSeat;
+    private byte[] purchases;
+    
+    /**
+     * Constructs a record for a game that has not been played yet.
+     *
+     * @param seed the seed the game was created with
+     * @param game the game, with no turns played
+     */
+    public GameRecord(long seed, Game game) {
+        this.seed = seed;
+        this.game = game;
+        this.startingSeat = game.getStartingPlayer() == game.getPlayer1() ? 1 : 2;
+        this.purchases = new byte[64];
+    }
+    
+    /**
+     * Plays turns until the given turn has been played or the game ends.
+     *
+     * @param turn the turn number that should be played
+     * @return true if that turn was played
+     */
+    private boolean playThrough(int turn) {
+        while (game.getTurnsPlayed() <= turn) {
+            if (!game.step()) {
+                return false;
+            }
+            int played = game.getTurnsPlayed() - 1;
+            if (played == purchases.length) {
+                purchases = Arrays.copyOf(purchases, played * 2);
+            }
+            String card = game.getLastPurchase();
+            purchases[played] = card == null ? NO_PURCHASE : (byte) Supply.cardIndex(card);
+        }
+        return true;
+    }
+    
+    /**
+     * Plays the rest of the game.
+     */
+    private void finish() {
+        playThrough(Integer.MAX_VALUE - 1);
+    }
+    
+    /**
+     * Gets the seed the game was created with.
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Gets which player took the first turn. Does not play any turns.
+     * @return the starting seat, 1 or 2
+     */
+    public int getStartingSeat() {
+        return startingSeat;
+    }
+    
+    /**
+     * Gets which player takes a turn. Does not play any turns.
+     *
+     * @param turn the turn number
+     * @return the seat, 1 or 2
+     */
+    public int getSeat(int turn) {
+        return turn % 2 == 0 ? startingSeat : 3 - startingSeat;
+    }
+    
+    /**
+     * Gets the card bought on a turn, playing the game up to that turn.
+     *
+     * @param turn the turn number
+     * @return the card name, or null if nothing was bought or the game ended first
+     * @throws IllegalArgumentException if turn is negative
+     */
+    public String getPurchase(int turn) {
+        if (turn < 0) {
+            throw new IllegalArgumentException("Negative turn " + turn);
+        }
+        if (!playThrough(turn) || purchases[turn] == NO_PURCHASE) {
+            return null;
+        }
+        return Supply.getCardName(purchases[turn]);
+    }
+    
+    /**
+     * Finds the first turn on which a player bought a card, playing no
+     * further than needed.
+     *
+     * @param seat the player number, 1 or 2
+     * @param cardName the card to look for
+     * @param turnLimit the first turn not to look at
+     * @return the turn number, or -1 if the card was not bought before turnLimit
+     * @throws IllegalArgumentException if there is no card with that name
+     */
+    public int firstPurchaseTurn(int seat, String cardName, int turnLimit) {
+        int cardIndex = Supply.cardIndex(cardName);
+        if (cardIndex < 0) {
+            throw new IllegalArgumentException("Unknown card " + cardName);
+        }
+        for (int turn = getSeat(0) == seat ? 0 : 1; turn < turnLimit; turn += 2) {
+            if (!playThrough(turn)) {
+                return -1;
+            }
+            if (purchases[turn] == cardIndex) {
+                return turn;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Checks whether a player bought a card before a given turn.
+     *
+     * @param seat the player number, 1 or 2
+     * @param cardName the card to look for
+     * @param turnLimit the first turn not to look at
+     * @return true if the card was bought on an earlier turn
+     * @throws IllegalArgumentException if there is no card with that name
+     */
+    public boolean boughtBefore(int seat, String cardName, int turnLimit) {
+        return firstPurchaseTurn(seat, cardName, turnLimit) >= 0;
+    }
+    
+    /**
+     * Gets the number of turns in the game, playing it to the end.
+     * @return the turn count
+     */
+    public int getTurns() {
+        finish();
+        return game.getTurnsPlayed();
+    }
+    
+    /**
+     * Gets a player's final automation points, playing the game to the end.
+     *
+     * @param seat the player number, 1 or 2
+     * @return the player's getTotalAutomationPoints() when the game ended
+     */
+    public int getPoints(int seat) {
+        finish();
+        return (seat == 1 ? game.getPlayer1() : game.getPlayer2()).getTotalAutomationPoints();
+    }
+    
+    /**
+     * Gets the winner, playing the game to the end.
+     * @return the winning seat, 1 or 2
+     */
+    public int getWinner() {
+        finish();
+        return game.getWinner() == game.getPlayer1() ? 1 : 2;
+    }
+    
+    /**
+     * Gets the rule that ended the game, playing it to the end.
+     * @return the end reason
+     */
+    public EndReason getEndReason() {
+        finish();
+        return game.getEndReason();
+    }
+    
+    /**
+     * Gets the underlying game, played to the end, for example to
+     * record it in GameStatistics.
+     * @return the finished game
+     */
+    public Game getGame() {
+        finish();
+        return game;
+    }
+}
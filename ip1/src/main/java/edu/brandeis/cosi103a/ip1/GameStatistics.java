@@ -0,0 +1,344 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Collector;
+
+/**
+ * Streaming statistics for a batch of games in Automation: The Game.
+ * 
+ * Records, without keeping any per-game data:
+ * - Wins for each player, and games and wins for each seat when it took
+ *   the first turn
+ * - Purchases of each card type by each player
+ * - A histogram of each player's final automation points
+ * - How many games each end rule stopped
+ * - A QuantileSketch of game lengths in turns
+ * 
+ * Memory use is fixed when the object is created, and record() does not
+ * allocate. An instance is not thread safe: each thread should keep its
+ * own and merge them at the end, which costs time proportional to the
+ * number of buckets, not games. collector() does exactly that for
+ * parallel streams.
+ */
+public class GameStatistics {
+    
+    /** Scores at or above this value share the last histogram bucket. */
+    public static final int MAX_POINTS = 63;
+    
+    private static final double TURN_COMPRESSION = 100;
+    
+    private long games;
+    private long player1Wins;
+    private long player2Wins;
+    // Indexed by seat - 1: games each seat started, and how many it then won
+    private long[] starts;
+    private long[] startingWins;
+    private long[] player1Purchases;
+    private long[] player2Purchases;
+    private long[] player1Points;
+    private long[] player2Points;
+    private long[] endReasons;
+    private QuantileSketch turns;
+    
+    /**
+     * Constructs an empty GameStatistics.
+     */
+    public GameStatistics() {
+        this.starts = new long[2];
+        this.startingWins = new long[2];
+        this.player1Purchases = new long[Supply.CARD_TYPES];
+        this.player2Purchases = new long[Supply.CARD_TYPES];
+        this.player1Points = new long[MAX_POINTS + 1];
+        this.player2Points = new long[MAX_POINTS + 1];
+        this.endReasons = new long[EndReason.values().length];
+        this.turns = new QuantileSketch(TURN_COMPRESSION);
+    }
+    
+    /**
+     * Creates a collector that records a stream of finished games, using
+     * one GameStatistics per thread and merging them at the end.
+     *
+     * @return a collector of finished games
+     */
+    public static Collector<Game, GameStatistics, GameStatistics> collector() {
+        return Collector.of(GameStatistics::new, GameStatistics::record, (left, right) -> {
+            left.merge(right);
+            return left;
+        });
+    }
+    
+    /**
+     * Records a finished game.
+     *
+     * @param game a game whose playGame() has returned
+     */
+    public void record(Game game) {
+        Player winner = game.getWinner();
+        games++;
+        if (winner == game.getPlayer1()) {
+            player1Wins++;
+        } else {
+            player2Wins++;
+        }
+        int starter = game.getStartingPlayer() == game.getPlayer1() ? 0 : 1;
+        starts[starter]++;
+        if (winner == game.getStartingPlayer()) {
+            startingWins[starter]++;
+        }
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            player1Purchases[i] += game.getPurchaseCount(1, i);
+            player2Purchases[i] += game.getPurchaseCount(2, i);
+        }
+        player1Points[bucket(game.getPlayer1().getTotalAutomationPoints())]++;
+        player2Points[bucket(game.getPlayer2().getTotalAutomationPoints())]++;
+        if (game.getEndReason() != null) {
+            endReasons[game.getEndReason().ordinal()]++;
+        }
+        turns.add(game.getTurnsPlayed());
+    }
+    
+    /**
+     * Adds another batch's statistics to this one.
+     *
+     * @param other the statistics to merge in
+     */
+    public void merge(GameStatistics other) {
+        games += other.games;
+        player1Wins += other.player1Wins;
+        player2Wins += other.player2Wins;
+        for (int i = 0; i < 2; i++) {
+            starts[i] += other.starts[i];
+            startingWins[i] += other.startingWins[i];
+        }
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            player1Purchases[i] += other.player1Purchases[i];
+            player2Purchases[i] += other.player2Purchases[i];
+        }
+        for (int i = 0; i <= MAX_POINTS; i++) {
+            player1Points[i] += other.player1Points[i];
+            player2Points[i] += other.player2Points[i];
+        }
+        for (int i = 0; i < endReasons.length; i++) {
+            endReasons[i] += other.endReasons[i];
+        }
+        turns.merge(other.turns);
+    }
+    
+    /**
+     * Clears all statistics.
+     */
+    public void reset() {
+        games = 0;
+        player1Wins = 0;
+        player2Wins = 0;
+        Arrays.fill(starts, 0);
+        Arrays.fill(startingWins, 0);
+        Arrays.fill(player1Purchases, 0);
+        Arrays.fill(player2Purchases, 0);
+        Arrays.fill(player1Points, 0);
+        Arrays.fill(player2Points, 0);
+        Arrays.fill(endReasons, 0);
+        turns.reset();
+    }
+    
+    /**
+     * Writes the statistics to a binary stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(games);
+        out.writeLong(player1Wins);
+        out.writeLong(player2Wins);
+        writeCounts(out, starts);
+        writeCounts(out, startingWins);
+        writeCounts(out, player1Purchases);
+        writeCounts(out, player2Purchases);
+        writeCounts(out, player1Points);
+        writeCounts(out, player2Points);
+        writeCounts(out, endReasons);
+        turns.writeTo(out);
+    }
+    
+    /**
+     * Reads statistics written by writeTo().
+     *
+     * @param in the stream to read from
+     * @return the statistics that were read
+     * @throws IOException if reading fails
+     */
+    public static GameStatistics readFrom(DataInput in) throws IOException {
+        GameStatistics stats = new GameStatistics();
+        stats.games = in.readLong();
+        stats.player1Wins = in.readLong();
+        stats.player2Wins = in.readLong();
+        readCounts(in, stats.starts);
+        readCounts(in, stats.startingWins);
+        readCounts(in, stats.player1Purchases);
+        readCounts(in, stats.player2Purchases);
+        readCounts(in, stats.player1Points);
+        readCounts(in, stats.player2Points);
+        readCounts(in, stats.endReasons);
+        stats.turns = QuantileSketch.readFrom(in);
+        return stats;
+    }
+    
+    /**
+     * Gets the number of games recorded.
+     *
+     * @return the game count
+     */
+    public long getGames() {
+        return games;
+    }
+    
+    /**
+     * Gets the number of games won by a player.
+     *
+     * @param seat the player number, 1 or 2
+     * @return the player's wins
+     */
+    public long getWins(int seat) {
+        return seat == 1 ? player1Wins : player2Wins;
+    }
+    
+    /**
+     * Gets the fraction of games won by a player.
+     *
+     * @param seat the player number, 1 or 2
+     * @return the win rate, or NaN if no games were recorded
+     */
+    public double getWinRate(int seat) {
+        return games == 0 ? Double.NaN : (double) getWins(seat) / games;
+    }
+    
+    /**
+     * Gets the fraction of games won by the player who took the first turn.
+     *
+     * @return the first player's win rate, or NaN if no games were recorded
+     */
+    public double getStartingPlayerWinRate() {
+        return games == 0 ? Double.NaN : (double) (startingWins[0] + startingWins[1]) / games;
+    }
+    
+    /**
+     * Gets the number of games in which a player took the first turn.
+     *
+     * @param seat the player number, 1 or 2
+     * @return the games that seat started
+     */
+    public long getStarts(int seat) {
+        return starts[seat - 1];
+    }
+    
+    /**
+     * Gets the number of games a player won after taking the first turn.
+     *
+     * @param seat the player number, 1 or 2
+     * @return the seat's wins in the games it started
+     */
+    public long getStartingWins(int seat) {
+        return startingWins[seat - 1];
+    }
+    
+    /**
+     * Gets the fraction of the games a player started that it went on to win.
+     *
+     * @param seat the player number, 1 or 2
+     * @return the seat's win rate when moving first, or NaN if it never did
+     */
+    public double getStartingWinRate(int seat) {
+        long started = starts[seat - 1];
+        return started == 0 ? Double.NaN : (double) startingWins[seat - 1] / started;
+    }
+    
+    /**
+     * Gets how many cards of one type a player bought across all games.
+     *
+     * @param seat the player number, 1 or 2
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the number of cards bought
+     */
+    public long getPurchaseCount(int seat, int cardIndex) {
+        return seat == 1 ? player1Purchases[cardIndex] : player2Purchases[cardIndex];
+    }
+    
+    /**
+     * Gets how many games a player finished with the given points.
+     *
+     * @param seat the player number, 1 or 2
+     * @param points the final automation points (values above MAX_POINTS share a bucket)
+     * @return the number of games
+     */
+    public long getPointCount(int seat, int points) {
+        long[] histogram = seat == 1 ? player1Points : player2Points;
+        return histogram[bucket(points)];
+    }
+    
+    /**
+     * Gets how many games were stopped by an end rule.
+     *
+     * @param reason the end rule
+     * @return the number of games
+     */
+    public long getEndReasonCount(EndReason reason) {
+        return endReasons[reason.ordinal()];
+    }
+    
+    /**
+     * Estimates a quantile of game length.
+     *
+     * @param q the quantile, from 0 to 1
+     * @return the estimated number of turns, or NaN if no games were recorded
+     */
+    public double getTurnsQuantile(double q) {
+        return turns.quantile(q);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Games: %d%n", games));
+        text.append(String.format("Player 1 Wins: %d (%.1f%%)%n", player1Wins, 100 * getWinRate(1)));
+        text.append(String.format("Player 2 Wins: %d (%.1f%%)%n", player2Wins, 100 * getWinRate(2)));
+        text.append(String.format("Starting Player Win Rate: %.1f%% (P1 first: %.1f%%, P2 first: %.1f%%)%n",
+                                  100 * getStartingPlayerWinRate(),
+                                  100 * getStartingWinRate(1), 100 * getStartingWinRate(2)));
+        text.append(String.format("Turns: p50=%.0f p90=%.0f p99=%.0f%n",
+                                  getTurnsQuantile(0.5), getTurnsQuantile(0.9), getTurnsQuantile(0.99)));
+        text.append("Purchases (P1/P2):");
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            text.append(String.format(" %s %d/%d", Supply.getCardName(i),
+                                      player1Purchases[i], player2Purchases[i]));
+        }
+        text.append(String.format("%nEnd Reasons:"));
+        for (EndReason reason : EndReason.values()) {
+            text.append(" ").append(reason).append("=").append(endReasons[reason.ordinal()]);
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Maps a score to its histogram bucket.
+     */
+    private static int bucket(int points) {
+        return Math.min(Math.max(points, 0), MAX_POINTS);
+    }
+    
+    private static void writeCounts(DataOutput out, long[] counts) throws IOException {
+        for (long count : counts) {
+            out.writeLong(count);
+        }
+    }
+    
+    private static void readCounts(DataInput in, long[] counts) throws IOException {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = in.readLong();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+/**
+ * The default BuyStrategy: always buy the most expensive card the player
+ * can afford.
+ * 
+ * Checks cards in order of typical cost (highest to lowest):
+ * Framework (8), Dogecoin (6), Module (5), Ethereum (3), Method (2), Bitcoin (0)
+ */
+public class GreedyBuyStrategy implements BuyStrategy {
+    
+    private static final String[] CARD_ORDER = {
+        "Framework", "Dogecoin", "Module", "Ethereum", "Method", "Bitcoin"
+    };
+    
+    @Override
+    public String chooseCard(Supply supply, Player player, int budget) {
+        for (String cardName : CARD_ORDER) {
+            if (supply.isAvailable(cardName)) {
+                int cost = supply.getCardCost(cardName);
+                if (cost >= 0 && cost <= budget) {
+                    return cardName;
+                }
+            }
+        }
+        return null;
+    }
+}
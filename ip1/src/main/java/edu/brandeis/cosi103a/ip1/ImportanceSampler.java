@@ -0,0 +1,159 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A biased RandomSource that tracks the likelihood ratio of its choices.
+ * 
+ * Each seat has a tilt: when that player draws, a card with cost c is
+ * picked with probability proportional to exp(tilt * c), so a positive
+ * tilt makes expensive cards come up sooner and a negative tilt delays
+ * them. The starting player is chosen with a configurable probability
+ * instead of a coin flip.
+ * 
+ * For every choice the sampler multiplies in the ratio between the
+ * probability a normal game would have made it and the probability the
+ * sampler made it. Weighting a game's outcome by getLikelihoodRatio()
+ * therefore gives an unbiased estimate for normal games.
+ * 
+ * One sampler belongs to one game; create a new one for each game.
+ */
+public class ImportanceSampler implements RandomSource {
+    
+    private Random random;
+    private double player1Tilt;
+    private double player2Tilt;
+    private double player1StartProbability;
+    private double logLikelihoodRatio;
+    private RandomSource seat1;
+    private RandomSource seat2;
+    
+    /**
+     * Constructs an ImportanceSampler.
+     *
+     * @param random the random number generator to draw from
+     * @param player1Tilt the draw tilt for player 1 (0 for unbiased)
+     * @param player2Tilt the draw tilt for player 2 (0 for unbiased)
+     * @param player1StartProbability the probability that player 1 starts, in (0, 1)
+     */
+    public ImportanceSampler(Random random, double player1Tilt, double player2Tilt,
+                             double player1StartProbability) {
+        if (!(player1StartProbability > 0 && player1StartProbability < 1)) {
+            throw new IllegalArgumentException(
+                    "player1StartProbability must be in (0, 1): " + player1StartProbability);
+        }
+        this.random = random;
+        this.player1Tilt = player1Tilt;
+        this.player2Tilt = player2Tilt;
+        this.player1StartProbability = player1StartProbability;
+        this.seat1 = new SeatSource(player1Tilt);
+        this.seat2 = new SeatSource(player2Tilt);
+    }
+    
+    /**
+     * Picks a card without a seat tilt. Players normally draw through
+     * forSeat(), so this is only used by callers outside a Game.
+     */
+    @Override
+    public int pickCard(List<Card> cards, int bound) {
+        return random.nextInt(bound);
+    }
+    
+    @Override
+    public boolean player1Starts() {
+        boolean starts = random.nextDouble() < player1StartProbability;
+        double proposal = starts ? player1StartProbability : 1 - player1StartProbability;
+        logLikelihoodRatio += Math.log(0.5 / proposal);
+        return starts;
+    }
+    
+    @Override
+    public RandomSource forSeat(int seat) {
+        return seat == 1 ? seat1 : seat2;
+    }
+    
+    /**
+     * Gets the likelihood ratio of all choices made so far: the probability
+     * of these choices in a normal game divided by their probability under
+     * this sampler.
+     *
+     * @return the likelihood ratio (1.0 if nothing was biased)
+     */
+    public double getLikelihoodRatio() {
+        return Math.exp(logLikelihoodRatio);
+    }
+    
+    /**
+     * Gets the draw tilt for player 1.
+     *
+     * @return player 1's tilt
+     */
+    public double getPlayer1Tilt() {
+        return player1Tilt;
+    }
+    
+    /**
+     * Gets the draw tilt for player 2.
+     *
+     * @return player 2's tilt
+     */
+    public double getPlayer2Tilt() {
+        return player2Tilt;
+    }
+    
+    /**
+     * Gets the probability that player 1 starts.
+     *
+     * @return the starting probability for player 1
+     */
+    public double getPlayer1StartProbability() {
+        return player1StartProbability;
+    }
+    
+    /**
+     * The view of the sampler used by one player. It applies that seat's
+     * tilt and adds to the shared likelihood ratio.
+     */
+    private class SeatSource implements RandomSource {
+        
+        private double tilt;
+        
+        SeatSource(double tilt) {
+            this.tilt = tilt;
+        }
+        
+        @Override
+        public int pickCard(List<Card> cards, int bound) {
+            if (tilt == 0 || bound == 1) {
+                return random.nextInt(bound);
+            }
+            
+            double total = 0;
+            for (int i = 0; i < bound; i++) {
+                total += Math.exp(tilt * cards.get(i).getCost());
+            }
+            
+            double target = random.nextDouble() * total;
+            int chosen = bound - 1;
+            double cumulative = 0;
+            for (int i = 0; i < bound; i++) {
+                cumulative += Math.exp(tilt * cards.get(i).getCost());
+                if (target < cumulative) {
+                    chosen = i;
+                    break;
+                }
+            }
+            
+            // Normal probability 1/bound, sampled probability weight/total
+            logLikelihoodRatio += Math.log(total / bound) - tilt * cards.get(chosen).getCost();
+            return chosen;
+        }
+        
+        @Override
+        public boolean player1Starts() {
+            return ImportanceSampler.this.player1Starts();
+        }
+    }
+}
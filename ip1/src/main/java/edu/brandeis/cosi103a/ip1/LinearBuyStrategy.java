@@ -0,0 +1,166 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.Arrays;
+
+/**
+ * A BuyStrategy that scores every affordable card with a linear function
+ * of the game state and buys the highest scoring one.
+ * 
+ * Each card type has its own block of FEATURES_PER_CARD weights, applied to:
+ * - 1 (a fixed preference for the card)
+ * - the player's budget / 8
+ * - copies of the card left in the supply / 10
+ * - copies of the card the player owns / 10
+ * - Frameworks left in the supply / 8 (how close the game is to ending)
+ * 
+ * Weights are learned by PolicyTrainer. The weights are copied on
+ * construction and never change, so one instance can be shared by many games.
+ */
+public class LinearBuyStrategy implements BuyStrategy {
+    
+    /** The number of features per card type. */
+    public static final int FEATURES_PER_CARD = 5;
+    
+    /** The total number of weights. */
+    public static final int WEIGHT_COUNT = Supply.CARD_TYPES * FEATURES_PER_CARD;
+    
+    private static final int FRAMEWORK = Supply.cardIndex("Framework");
+    
+    private double[] weights;
+    
+    /**
+     * Constructs a LinearBuyStrategy with the given weights.
+     *
+     * @param weights WEIGHT_COUNT weights, one block per card type in Supply index order
+     */
+    public LinearBuyStrategy(double[] weights) {
+        if (weights.length != WEIGHT_COUNT) {
+            throw new IllegalArgumentException(
+                    "expected " + WEIGHT_COUNT + " weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+    }
+    
+    /**
+     * Creates a strategy that prefers expensive cards, like GreedyBuyStrategy.
+     * Used as the starting point for training.
+     *
+     * @return a strategy whose only nonzero weights are each card's cost
+     */
+    public static LinearBuyStrategy costOrdered() {
+        Supply supply = new Supply();
+        double[] weights = new double[WEIGHT_COUNT];
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            weights[i * FEATURES_PER_CARD] = supply.getCardCost(Supply.getCardName(i));
+        }
+        return new LinearBuyStrategy(weights);
+    }
+    
+    /**
+     * Parses weights written by toString().
+     *
+     * @param text comma-separated weights
+     * @return the strategy with those weights
+     * @throws IllegalArgumentException if the text does not hold WEIGHT_COUNT numbers
+     */
+    public static LinearBuyStrategy parse(String text) {
+        String[] parts = text.trim().split("\\s*,\\s*");
+        double[] weights = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            weights[i] = Double.parseDouble(parts[i]);
+        }
+        return new LinearBuyStrategy(weights);
+    }
+    
+    @Override
+    public String chooseCard(Supply supply, Player player, int budget) {
+        String best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            String cardName = Supply.getCardName(i);
+            if (supply.isAvailable(cardName) && supply.getCardCost(cardName) <= budget) {
+                double score = score(weights, supply, player, budget, i);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = cardName;
+                }
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Computes the features of buying one card type.
+     *
+     * @param supply the supply to buy from
+     * @param player the player who is buying
+     * @param budget the money the player has this turn
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @param out the array to write FEATURES_PER_CARD features into
+     * @param offset the index of the first feature in out
+     */
+    public static void features(Supply supply, Player player, int budget, int cardIndex,
+                                double[] out, int offset) {
+        out[offset] = 1;
+        out[offset + 1] = budget / 8.0;
+        out[offset + 2] = supply.getCardCount(Supply.getCardName(cardIndex)) / 10.0;
+        out[offset + 3] = player.getOwnedCount(cardIndex) / 10.0;
+        out[offset + 4] = supply.getCardCount(Supply.getCardName(FRAMEWORK)) / 8.0;
+    }
+    
+    /**
+     * Scores buying one card type with the given weights, without allocating.
+     *
+     * @param weights WEIGHT_COUNT weights
+     * @param supply the supply to buy from
+     * @param player the player who is buying
+     * @param budget the money the player has this turn
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the card's score
+     */
+    public static double score(double[] weights, Supply supply, Player player, int budget,
+                               int cardIndex) {
+        int base = cardIndex * FEATURES_PER_CARD;
+        return weights[base]
+             + weights[base + 1] * (budget / 8.0)
+             + weights[base + 2] * (supply.getCardCount(Supply.getCardName(cardIndex)) / 10.0)
+             + weights[base + 3] * (player.getOwnedCount(cardIndex) / 10.0)
+             + weights[base + 4] * (supply.getCardCount(Supply.getCardName(FRAMEWORK)) / 8.0);
+    }
+    
+    /**
+     * Gets a copy of the weights.
+     *
+     * @return the weights
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+    
+    /**
+     * Formats the weights as comma-separated numbers that parse() reads back.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < weights.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(weights[i]);
+        }
+        return text.toString();
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LinearBuyStrategy
+            && Arrays.equals(weights, ((LinearBuyStrategy) other).weights);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+}
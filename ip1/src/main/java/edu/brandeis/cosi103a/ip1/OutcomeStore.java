@@ -0,0 +1,335 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * An append-only file of fixed-size game outcome records that several
+ * threads and processes can share.
+ * 
+ * The file is memory-mapped and read and written through a
+ * MemorySegment, so appends are plain stores into the page cache and
+ * readers look at records in place without copying them. A 64-byte
+ * header holds the capacity and an append cursor. Writers reserve a
+ * record by atomically adding one to the cursor, so they never block
+ * each other, even across processes mapping the same file.
+ * 
+ * Each record is 48 bytes:
+ * - seed (long), turns (int), player 1 and 2 points (short each)
+ * - winning seat and end reason (byte each), a commit flag (int)
+ * - purchases per seat and card type (12 shorts)
+ * 
+ * The commit flag is written last with release semantics and read with
+ * acquire semantics, so a reader that sees it set sees the whole record.
+ * A reserved record whose flag is not yet set is still being written.
+ * 
+ * A writer that dies between reserving a record and committing it leaves
+ * that record uncommitted for good. Nothing can tell it apart from a slow
+ * writer, so scan() stops at it every time. Once every writer is known to
+ * have finished, a reader can step over it by scanning again from the
+ * next index; the record's fields are then meaningless.
+ * 
+ * The capacity is fixed when the file is created. The store is not
+ * durable until force() is called or the operating system writes the
+ * pages back.
+ */
+public class OutcomeStore implements AutoCloseable {
+    
+    /** The size of one record in bytes. */
+    public static final int RECORD_SIZE = 48;
+    
+    private static final int MAGIC = 0x4950314F; // "IP1O"
+    private static final int VERSION = 1;
+    private static final long HEADER_SIZE = 64;
+    
+    // Header offsets
+    private static final long MAGIC_OFFSET = 0;
+    private static final long VERSION_OFFSET = 4;
+    private static final long CAPACITY_OFFSET = 8;
+    private static final long CURSOR_OFFSET = 16;
+    
+    // Record offsets
+    private static final long SEED = 0;
+    private static final long TURNS = 8;
+    private static final long POINTS = 12;
+    private static final long WINNER = 16;
+    private static final long END_REASON = 17;
+    private static final long COMMITTED = 20;
+    private static final long PURCHASES = 24;
+    
+    private static final VarHandle LONG_HANDLE = ValueLayout.JAVA_LONG.varHandle();
+    private static final VarHandle INT_HANDLE = ValueLayout.JAVA_INT.varHandle();
+    
+    private static final EndReason[] END_REASONS = EndReason.values();
+    
+    private final Arena arena;
+    private final FileChannel channel;
+    private final MemorySegment segment;
+    private final long capacity;
+    
+    /**
+     * Maps a store file.
+     */
+    private OutcomeStore(Path file, long capacity, boolean create) throws IOException {
+        this.channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.arena = Arena.ofShared();
+        try {
+            long size = create ? HEADER_SIZE + capacity * RECORD_SIZE : channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException(file + " is not an outcome store");
+            }
+            this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+            if (create) {
+                segment.set(ValueLayout.JAVA_INT, MAGIC_OFFSET, MAGIC);
+                segment.set(ValueLayout.JAVA_INT, VERSION_OFFSET, VERSION);
+                segment.set(ValueLayout.JAVA_LONG, CAPACITY_OFFSET, capacity);
+            } else if (segment.get(ValueLayout.JAVA_INT, MAGIC_OFFSET) != MAGIC
+                    || segment.get(ValueLayout.JAVA_INT, VERSION_OFFSET) != VERSION
+                    || size != HEADER_SIZE + segment.get(ValueLayout.JAVA_LONG, CAPACITY_OFFSET) * RECORD_SIZE) {
+                throw new IOException(file + " is not an outcome store");
+            }
+            this.capacity = segment.get(ValueLayout.JAVA_LONG, CAPACITY_OFFSET);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Creates a new, empty store file.
+     *
+     * @param file the file to create; it must not exist
+     * @param capacity the maximum number of records
+     * @return the store
+     * @throws IOException if the file exists or cannot be mapped
+     */
+    public static OutcomeStore create(Path file, long capacity) throws IOException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity " + capacity);
+        }
+        return new OutcomeStore(file, capacity, true);
+    }
+    
+    /**
+     * Opens an existing store file, for example one another process is writing.
+     *
+     * @param file the store file
+     * @return the store
+     * @throws IOException if the file cannot be mapped or is not an outcome store
+     */
+    public static OutcomeStore open(Path file) throws IOException {
+        return new OutcomeStore(file, 0, false);
+    }
+    
+    /**
+     * Appends the outcome of a finished game. Safe to call from many
+     * threads and processes at once.
+     *
+     * @param seed the seed the game was played with
+     * @param game a game whose playGame() has returned
+     * @return the index of the new record
+     * @throws IllegalStateException if the store is full or closed
+     */
+    public long append(long seed, Game game) {
+        long index = (long) LONG_HANDLE.getAndAdd(segment, CURSOR_OFFSET, 1L);
+        if (index >= capacity) {
+            throw new IllegalStateException("Outcome store is full at " + capacity + " records");
+        }
+        long record = offset(index);
+        segment.set(ValueLayout.JAVA_LONG, record + SEED, seed);
+        segment.set(ValueLayout.JAVA_INT, record + TURNS, game.getTurnsPlayed());
+        segment.set(ValueLayout.JAVA_SHORT, record + POINTS,
+                    (short) game.getPlayer1().getTotalAutomationPoints());
+        segment.set(ValueLayout.JAVA_SHORT, record + POINTS + 2,
+                    (short) game.getPlayer2().getTotalAutomationPoints());
+        segment.set(ValueLayout.JAVA_BYTE, record + WINNER,
+                    (byte) (game.getWinner() == game.getPlayer1() ? 1 : 2));
+        segment.set(ValueLayout.JAVA_BYTE, record + END_REASON, (byte) game.getEndReason().ordinal());
+        for (int seat = 1; seat <= 2; seat++) {
+            for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                segment.set(ValueLayout.JAVA_SHORT, purchaseOffset(record, seat, i),
+                            (short) game.getPurchaseCount(seat, i));
+            }
+        }
+        INT_HANDLE.setRelease(segment, record + COMMITTED, 1);
+        return index;
+    }
+    
+    /**
+     * Gets the number of records reserved so far, including any that are
+     * still being written.
+     *
+     * @return the record count
+     */
+    public long size() {
+        return Math.min((long) LONG_HANDLE.getAcquire(segment, CURSOR_OFFSET), capacity);
+    }
+    
+    /**
+     * Gets the maximum number of records.
+     * @return the capacity
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Checks whether a record has been completely written.
+     *
+     * @param index the record index
+     * @return true if the record can be read
+     */
+    public boolean isCommitted(long index) {
+        return (int) INT_HANDLE.getAcquire(segment, offset(index) + COMMITTED) != 0;
+    }
+    
+    /**
+     * Visits committed records in order, stopping at the first one still
+     * being written. Call again with the returned index to follow a store
+     * that is being appended to. A record abandoned by a writer that died
+     * stops every scan; see the class comment.
+     *
+     * @param from the first record index to visit
+     * @param action called with each record index
+     * @return the index of the first record not visited
+     */
+    public long scan(long from, LongConsumer action) {
+        long end = size();
+        long index = from;
+        while (index < end && isCommitted(index)) {
+            action.accept(index);
+            index++;
+        }
+        return index;
+    }
+    
+    /**
+     * Gets a record's seed.
+     * @param index the record index
+     * @return the seed
+     */
+    public long getSeed(long index) {
+        return segment.get(ValueLayout.JAVA_LONG, offset(index) + SEED);
+    }
+    
+    /**
+     * Gets the number of turns a recorded game lasted.
+     * @param index the record index
+     * @return the turn count
+     */
+    public int getTurns(long index) {
+        return segment.get(ValueLayout.JAVA_INT, offset(index) + TURNS);
+    }
+    
+    /**
+     * Gets a player's final automation points in a recorded game.
+     * @param index the record index
+     * @param seat the player number, 1 or 2
+     * @return the points
+     */
+    public int getPoints(long index, int seat) {
+        return segment.get(ValueLayout.JAVA_SHORT, offset(index) + POINTS + 2 * (seat - 1));
+    }
+    
+    /**
+     * Gets the winner of a recorded game.
+     * @param index the record index
+     * @return the winning seat, 1 or 2
+     */
+    public int getWinner(long index) {
+        return segment.get(ValueLayout.JAVA_BYTE, offset(index) + WINNER);
+    }
+    
+    /**
+     * Gets the rule that ended a recorded game.
+     * @param index the record index
+     * @return the end reason
+     * @throws IllegalStateException if the stored value is not an end reason
+     */
+    public EndReason getEndReason(long index) {
+        int ordinal = segment.get(ValueLayout.JAVA_BYTE, offset(index) + END_REASON);
+        if (ordinal < 0 || ordinal >= END_REASONS.length) {
+            throw new IllegalStateException("Record " + index + " has invalid end reason " + ordinal);
+        }
+        return END_REASONS[ordinal];
+    }
+    
+    /**
+     * Gets how many cards of one type a player bought in a recorded game.
+     * @param index the record index
+     * @param seat the player number, 1 or 2
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the number of cards bought
+     */
+    public int getPurchaseCount(long index, int seat, int cardIndex) {
+        return segment.get(ValueLayout.JAVA_SHORT, purchaseOffset(offset(index), seat, cardIndex));
+    }
+    
+    /**
+     * Writes any changed pages back to the file.
+     */
+    public void force() {
+        segment.force();
+    }
+    
+    /**
+     * Unmaps the file. Other threads must have stopped using the store.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        arena.close();
+        channel.close();
+    }
+    
+    /**
+     * Gets the byte offset of a record, checking it has been reserved.
+     */
+    private long offset(long index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + capacity);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+    
+    private static long purchaseOffset(long record, int seat, int cardIndex) {
+        return record + PURCHASES + 2 * ((seat - 1) * Supply.CARD_TYPES + cardIndex);
+    }
+    
+    /**
+     * Main method to play a range of seeds in parallel into a new store.
+     *
+     * @param args store file, first seed, end seed (exclusive)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: OutcomeStore storeFile fromSeed toSeed");
+            System.exit(2);
+        }
+        long fromSeed = Long.parseLong(args[1]);
+        long toSeed = Long.parseLong(args[2]);
+        try (OutcomeStore store = create(Path.of(args[0]), toSeed - fromSeed)) {
+            LongStream.range(fromSeed, toSeed).parallel().forEach(seed -> {
+                Game game = new Game(seed);
+                game.playGame();
+                store.append(seed, game);
+            });
+            store.force();
+            System.out.println("Stored " + store.size() + " games in " + args[0]);
+        }
+    }
+}
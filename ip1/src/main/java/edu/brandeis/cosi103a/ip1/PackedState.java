@@ -0,0 +1,411 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+/**
+ * Packs the complete state of a game of Automation: The Game into three longs.
+ * 
+ * A position is fully described by counts: how many of each card type are
+ * left in the supply, how many of each type each player has in their draw
+ * pile, hand and discard pile, and whose turn it is. Card order within a
+ * pile does not matter because draws pick a random card. Every count has a
+ * small upper bound, so the whole state fits in 190 bits:
+ * 
+ * - Supply: Method 4, Module 4, Framework 4, Bitcoin 6, Ethereum 6, Dogecoin 5 bits
+ * - Each player's draw and discard piles: 5, 4, 4, 7, 6, 5 bits per type
+ *   (enough for the starter deck plus the whole supply of that type)
+ * - Each player's hand: 3 bits per type (at most 5 cards)
+ * - Whose turn it is: 1 bit
+ * 
+ * States are stored as WORDS consecutive longs in a long[], starting at
+ * any index, so large arrays can hold many positions without any objects.
+ * All methods are static and work on (words, base). Fields may straddle
+ * two longs; the accessors handle that.
+ */
+public class PackedState {
+    
+    /** The number of longs in one packed state. */
+    public static final int WORDS = 3;
+    
+    /** Pile index of the draw pile. */
+    public static final int DRAW = 0;
+    
+    /** Pile index of the hand. */
+    public static final int HAND = 1;
+    
+    /** Pile index of the discard pile. */
+    public static final int DISCARD = 2;
+    
+    /** The length of the array filled by decode(). */
+    public static final int DECODED_LENGTH = Supply.CARD_TYPES * 7 + 1;
+    
+    private static final int[] SUPPLY_BITS = {4, 4, 4, 6, 6, 5};
+    private static final int[] PILE_BITS = {5, 4, 4, 7, 6, 5};
+    private static final int HAND_BITS = 3;
+    
+    private static final int[] SUPPLY_OFFSETS = new int[Supply.CARD_TYPES];
+    // PILE_OFFSETS[seat - 1][pile][type]
+    private static final int[][][] PILE_OFFSETS = new int[2][3][Supply.CARD_TYPES];
+    private static final int MOVER_OFFSET;
+    
+    // Per-thread pile counts for encode(), which is called every turn
+    private static final ThreadLocal<int[][]> COUNTS =
+            ThreadLocal.withInitial(() -> new int[3][Supply.CARD_TYPES]);
+    
+    static {
+        int offset = 0;
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            SUPPLY_OFFSETS[t] = offset;
+            offset += SUPPLY_BITS[t];
+        }
+        for (int seat = 0; seat < 2; seat++) {
+            for (int pile = DRAW; pile <= DISCARD; pile++) {
+                for (int t = 0; t < Supply.CARD_TYPES; t++) {
+                    PILE_OFFSETS[seat][pile][t] = offset;
+                    offset += pileBits(pile, t);
+                }
+            }
+        }
+        MOVER_OFFSET = offset++;
+        if (offset > WORDS * 64) {
+            throw new AssertionError("packed state needs " + offset + " bits");
+        }
+    }
+    
+    private PackedState() {
+    }
+    
+    /**
+     * Encodes a game's current state.
+     *
+     * @param game the game to encode
+     * @param words the array to write into
+     * @param base the index of the first of the WORDS longs to write
+     * @throws IllegalArgumentException if a count does not fit its field
+     */
+    public static void encode(Game game, long[] words, int base) {
+        encode(game.getSupply(), game.getPlayer1(), game.getPlayer2(),
+               game.getCurrentPlayer() == game.getPlayer1(), words, base);
+    }
+    
+    /**
+     * Encodes a supply, two players and whose turn it is.
+     *
+     * @param supply the supply
+     * @param player1 player 1
+     * @param player2 player 2
+     * @param player1ToMove true if player 1 takes the next turn
+     * @param words the array to write into
+     * @param base the index of the first of the WORDS longs to write
+     * @throws IllegalArgumentException if a count does not fit its field
+     */
+    public static void encode(Supply supply, Player player1, Player player2, boolean player1ToMove,
+                              long[] words, int base) {
+        for (int i = 0; i < WORDS; i++) {
+            words[base + i] = 0;
+        }
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            put(words, base, SUPPLY_OFFSETS[t], SUPPLY_BITS[t], supply.getCardCount(Supply.getCardName(t)));
+        }
+        
+        int[][] counts = COUNTS.get();
+        for (int seat = 0; seat < 2; seat++) {
+            Player player = seat == 0 ? player1 : player2;
+            player.countCards(counts[DRAW], counts[HAND], counts[DISCARD]);
+            for (int pile = DRAW; pile <= DISCARD; pile++) {
+                for (int t = 0; t < Supply.CARD_TYPES; t++) {
+                    put(words, base, PILE_OFFSETS[seat][pile][t], pileBits(pile, t), counts[pile][t]);
+                }
+            }
+        }
+        put(words, base, MOVER_OFFSET, 1, player1ToMove ? 1 : 0);
+    }
+    
+    /**
+     * Decodes every field into an int array laid out as: supply counts,
+     * then player 1's draw, hand and discard counts, then player 2's,
+     * then 1 if player 1 is to move (DECODED_LENGTH values in total).
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param out the array to fill, at least DECODED_LENGTH long
+     */
+    public static void decode(long[] words, int base, int[] out) {
+        int i = 0;
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            out[i++] = supplyCount(words, base, t);
+        }
+        for (int seat = 1; seat <= 2; seat++) {
+            for (int pile = DRAW; pile <= DISCARD; pile++) {
+                for (int t = 0; t < Supply.CARD_TYPES; t++) {
+                    out[i++] = pileCount(words, base, seat, pile, t);
+                }
+            }
+        }
+        out[i] = isPlayer1ToMove(words, base) ? 1 : 0;
+    }
+    
+    /**
+     * Gets the number of cards of one type left in the supply.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the supply count
+     */
+    public static int supplyCount(long[] words, int base, int cardIndex) {
+        return get(words, base, SUPPLY_OFFSETS[cardIndex], SUPPLY_BITS[cardIndex]);
+    }
+    
+    /**
+     * Gets the number of cards of one type in one of a player's piles.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param seat the player number, 1 or 2
+     * @param pile DRAW, HAND or DISCARD
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the pile count
+     */
+    public static int pileCount(long[] words, int base, int seat, int pile, int cardIndex) {
+        return get(words, base, PILE_OFFSETS[seat - 1][pile][cardIndex], pileBits(pile, cardIndex));
+    }
+    
+    /**
+     * Checks whose turn it is.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @return true if player 1 takes the next turn
+     */
+    public static boolean isPlayer1ToMove(long[] words, int base) {
+        return get(words, base, MOVER_OFFSET, 1) == 1;
+    }
+    
+    /**
+     * Buys a card: moves one from the supply to the player's discard pile.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param seat the player number, 1 or 2
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @throws IllegalStateException if the supply is empty or the pile is full,
+     *         in which case the state is unchanged
+     */
+    public static void buy(long[] words, int base, int seat, int cardIndex) {
+        move(words, base, SUPPLY_OFFSETS[cardIndex], SUPPLY_BITS[cardIndex],
+             PILE_OFFSETS[seat - 1][DISCARD][cardIndex], pileBits(DISCARD, cardIndex), 1);
+    }
+    
+    /**
+     * Draws a card: moves one from the player's draw pile to their hand.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param seat the player number, 1 or 2
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @throws IllegalStateException if the draw pile has no such card or the hand
+     *         is full, in which case the state is unchanged
+     */
+    public static void draw(long[] words, int base, int seat, int cardIndex) {
+        movePile(words, base, seat, DRAW, HAND, cardIndex, 1);
+    }
+    
+    /**
+     * Plays a crypto card: removes it from the player's hand and the game.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param seat the player number, 1 or 2
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @throws IllegalStateException if the hand has no such card
+     */
+    public static void playCrypto(long[] words, int base, int seat, int cardIndex) {
+        int offset = PILE_OFFSETS[seat - 1][HAND][cardIndex];
+        int count = get(words, base, offset, HAND_BITS);
+        if (count == 0) {
+            throw new IllegalStateException("no " + Supply.getCardName(cardIndex) + " in hand");
+        }
+        set(words, base, offset, HAND_BITS, count - 1);
+    }
+    
+    /**
+     * Cleans up: moves the player's whole hand to their discard pile.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param seat the player number, 1 or 2
+     * @throws IllegalStateException if the discard pile would overflow,
+     *         in which case the state is unchanged
+     */
+    public static void cleanup(long[] words, int base, int seat) {
+        checkRoom(words, base, seat, HAND, DISCARD);
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            movePile(words, base, seat, HAND, DISCARD, t, pileCount(words, base, seat, HAND, t));
+        }
+    }
+    
+    /**
+     * Reshuffles: moves the player's whole discard pile to their draw pile.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @param seat the player number, 1 or 2
+     * @throws IllegalStateException if the draw pile would overflow,
+     *         in which case the state is unchanged
+     */
+    public static void reshuffle(long[] words, int base, int seat) {
+        checkRoom(words, base, seat, DISCARD, DRAW);
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            movePile(words, base, seat, DISCARD, DRAW, t, pileCount(words, base, seat, DISCARD, t));
+        }
+    }
+    
+    /**
+     * Ends the turn: the other player moves next.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     */
+    public static void endTurn(long[] words, int base) {
+        words[base + (MOVER_OFFSET >>> 6)] ^= 1L << (MOVER_OFFSET & 63);
+    }
+    
+    /**
+     * Hashes a packed state, for deduplicating positions.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @return a well mixed 64-bit hash
+     */
+    public static long hash(long[] words, int base) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < WORDS; i++) {
+            h = mix(h ^ words[base + i]);
+        }
+        return h;
+    }
+    
+    /**
+     * Checks whether two packed states are the same position.
+     *
+     * @param a the first array
+     * @param aBase the index of the first state
+     * @param b the second array
+     * @param bBase the index of the second state
+     * @return true if every field is equal
+     */
+    public static boolean equals(long[] a, int aBase, long[] b, int bBase) {
+        for (int i = 0; i < WORDS; i++) {
+            if (a[aBase + i] != b[bBase + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Formats a packed state for debugging.
+     *
+     * @param words the packed states
+     * @param base the index of the state's first long
+     * @return every field, by card name
+     */
+    public static String toString(long[] words, int base) {
+        StringBuilder text = new StringBuilder("supply[");
+        appendCounts(text, words, base, 0, -1);
+        for (int seat = 1; seat <= 2; seat++) {
+            text.append("] p").append(seat).append(" draw[");
+            appendCounts(text, words, base, seat, DRAW);
+            text.append("] hand[");
+            appendCounts(text, words, base, seat, HAND);
+            text.append("] discard[");
+            appendCounts(text, words, base, seat, DISCARD);
+        }
+        text.append("] next=p").append(isPlayer1ToMove(words, base) ? 1 : 2);
+        return text.toString();
+    }
+    
+    private static void appendCounts(StringBuilder text, long[] words, int base, int seat, int pile) {
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            if (t > 0) {
+                text.append(' ');
+            }
+            int count = pile < 0 ? supplyCount(words, base, t) : pileCount(words, base, seat, pile, t);
+            text.append(Supply.getCardName(t)).append('=').append(count);
+        }
+    }
+    
+    private static int pileBits(int pile, int cardIndex) {
+        return pile == HAND ? HAND_BITS : PILE_BITS[cardIndex];
+    }
+    
+    /**
+     * Checks that every type in one pile can be moved into another, so
+     * whole-pile moves either complete or leave the state unchanged.
+     */
+    private static void checkRoom(long[] words, int base, int seat, int from, int to) {
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            if (pileCount(words, base, seat, from, t) + pileCount(words, base, seat, to, t)
+                    >= 1 << pileBits(to, t)) {
+                throw new IllegalStateException(Supply.getCardName(t) + " count overflows its field");
+            }
+        }
+    }
+    
+    private static void movePile(long[] words, int base, int seat, int from, int to, int cardIndex, int count) {
+        move(words, base, PILE_OFFSETS[seat - 1][from][cardIndex], pileBits(from, cardIndex),
+             PILE_OFFSETS[seat - 1][to][cardIndex], pileBits(to, cardIndex), count);
+    }
+    
+    /**
+     * Moves count cards from one field to another. The state is unchanged
+     * if the source has too few or the destination would overflow.
+     */
+    private static void move(long[] words, int base, int fromOffset, int fromWidth,
+                             int toOffset, int toWidth, int count) {
+        int from = get(words, base, fromOffset, fromWidth) - count;
+        int to = get(words, base, toOffset, toWidth) + count;
+        if (from < 0 || to >= 1 << toWidth) {
+            throw new IllegalStateException("count out of range");
+        }
+        set(words, base, fromOffset, fromWidth, from);
+        set(words, base, toOffset, toWidth, to);
+    }
+    
+    /**
+     * Writes a field after checking it fits, for encoding.
+     */
+    private static void put(long[] words, int base, int offset, int width, int value) {
+        if (value < 0 || value >= 1 << width) {
+            throw new IllegalArgumentException(value + " does not fit in " + width + " bits");
+        }
+        set(words, base, offset, width, value);
+    }
+    
+    private static int get(long[] words, int base, int offset, int width) {
+        int index = base + (offset >>> 6);
+        int shift = offset & 63;
+        long value = words[index] >>> shift;
+        if (shift + width > 64) {
+            value |= words[index + 1] << (64 - shift);
+        }
+        return (int) (value & ((1L << width) - 1));
+    }
+    
+    private static void set(long[] words, int base, int offset, int width, int value) {
+        int index = base + (offset >>> 6);
+        int shift = offset & 63;
+        long mask = (1L << width) - 1;
+        words[index] = (words[index] & ~(mask << shift)) | ((long) value << shift);
+        if (shift + width > 64) {
+            int spill = 64 - shift;
+            words[index + 1] = (words[index + 1] & ~(mask >>> spill)) | ((long) value >>> spill);
+        }
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
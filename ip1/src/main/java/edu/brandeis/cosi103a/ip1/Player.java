@@ -2,9 +2,10 @@ package edu.brandeis.cosi103a.ip1;
 
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Represents a player in Automation: The Game.
@@ -22,20 +23,37 @@ public class Player {
     private List<Card> drawPile;
     private List<Card> hand;
     private List<Card> discardPile;
+    private int ownedAutomationPoints;
+    private int[] ownedCounts;
+    private RandomSource random;
     
     /**
-     * Constructs a Player with a starter deck of cards.
-     * Shuffles the draw pile and draws an initial hand of 5 cards.
+     * Constructs a Player with a starter deck of cards that draws
+     * with an unseeded uniform random source.
      *
      * @param starterCards the initial deck (should contain 7 Bitcoin + 3 Method cards)
      */
     public Player(List<Card> starterCards) {
+        this(starterCards, new UniformRandomSource(new Random()));
+    }
+    
+    /**
+     * Constructs a Player with a starter deck of cards.
+     * Draws an initial hand of 5 random cards from the deck.
+     *
+     * @param starterCards the initial deck (should contain 7 Bitcoin + 3 Method cards)
+     * @param random the source of draw choices
+     */
+    public Player(List<Card> starterCards, RandomSource random) {
+        this.random = random;
         this.drawPile = new ArrayList<>(starterCards);
         this.hand = new ArrayList<>();
         this.discardPile = new ArrayList<>();
+        this.ownedCounts = new int[Supply.CARD_TYPES];
         
-        // Shuffle the draw pile
-        Collections.shuffle(drawPile);
+        for (Card card : starterCards) {
+            countOwned(card);
+        }
         
         // Draw initial hand of 5 cards
         drawHand(5);
@@ -43,7 +61,13 @@ public class Player {
     
     /**
      * Draws a specified number of cards into the player's hand.
-     * If the draw pile is empty, reshuffles the discard pile into the draw pile.
+     * If the draw pile is empty, the discard pile becomes the draw pile.
+     * 
+     * The draw pile is never shuffled up front. Instead each draw picks a
+     * random card from the cards still in the pile, which is one step of a
+     * Fisher-Yates shuffle done on demand. Cards come out in an order that
+     * is exactly as random as shuffling first, but a reshuffle costs nothing
+     * and each draw costs constant time, however large the pile.
      * 
      * This is called with 5 at the start of each turn.
      *
@@ -51,24 +75,43 @@ public class Player {
      */
     private void drawHand(int numCards) {
         for (int i = 0; i < numCards; i++) {
-            // If draw pile is empty, reshuffle discard pile
+            // If draw pile is empty, the discard pile becomes the draw pile
             if (drawPile.isEmpty()) {
                 if (discardPile.isEmpty()) {
                     // No cards left in either pile
                     break;
                 }
-                drawPile.addAll(discardPile);
-                discardPile.clear();
-                Collections.shuffle(drawPile);
+                TurnProfiler profiler = TurnProfiler.ENABLED ? TurnProfiler.currentTurn() : null;
+                long start = profiler != null ? System.nanoTime() : 0;
+                
+                List<Card> emptyPile = drawPile;
+                drawPile = discardPile;
+                discardPile = emptyPile;
+                
+                if (TurnProfiler.ENABLED) {
+                    TurnProfiler.reshuffled(profiler, start, drawPile.size());
+                }
             }
             
-            // Draw a card if available
-            if (!drawPile.isEmpty()) {
-                hand.add(drawPile.remove(0));
-            }
+            hand.add(drawRandomCard());
         }
     }
     
+    /**
+     * Removes a random card from the draw pile. The chosen card is swapped
+     * with the last card so it can be removed without shifting the list.
+     *
+     * @return the drawn card
+     */
+    private Card drawRandomCard() {
+        int last = drawPile.size() - 1;
+        int pick = random.pickCard(drawPile, drawPile.size());
+        Card card = drawPile.get(pick);
+        drawPile.set(pick, drawPile.get(last));
+        drawPile.remove(last);
+        return card;
+    }
+    
     /**
      * Public method to draw hand at the start of a turn (5 cards).
      */
@@ -91,6 +134,7 @@ public class Player {
             if (card.isCrypto()) {
                 totalValue += card.getValue();
                 iterator.remove();
+                uncountOwned(card);
             }
         }
         
@@ -152,6 +196,30 @@ public class Player {
         return discardPile.size();
     }
     
+    /**
+     * Counts the cards of each type in the draw pile, hand and discard pile.
+     * Each array is indexed by Supply.cardIndex() and overwritten.
+     *
+     * @param drawCounts receives the draw pile counts
+     * @param handCounts receives the hand counts
+     * @param discardCounts receives the discard pile counts
+     */
+    public void countCards(int[] drawCounts, int[] handCounts, int[] discardCounts) {
+        countPile(drawPile, drawCounts);
+        countPile(hand, handCounts);
+        countPile(discardPile, discardCounts);
+    }
+    
+    /**
+     * Counts the cards of each type in one pile.
+     */
+    private static void countPile(List<Card> pile, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < pile.size(); i++) {
+            counts[Supply.cardIndex(pile.get(i).getName())]++;
+        }
+    }
+    
     /**
      * Adds a card directly to the discard pile.
      * Used for purchased cards that go directly to discard pile.
@@ -160,6 +228,60 @@ public class Player {
      */
     public void addToDiscardPile(Card card) {
         discardPile.add(card);
+        countOwned(card);
+    }
+    
+    /**
+     * Gets the total automation points of every card the player owns,
+     * across the draw pile, hand and discard pile.
+     * Kept up to date as cards are added, so it costs constant time.
+     *
+     * @return the sum of values of all owned automation cards
+     */
+    public int getOwnedAutomationPoints() {
+        return ownedAutomationPoints;
+    }
+    
+    /**
+     * Gets how many cards of one type the player owns, across the draw pile,
+     * hand and discard pile. Played crypto cards leave the game and are no
+     * longer counted.
+     *
+     * @param cardIndex the card index from Supply.cardIndex()
+     * @return the number of cards owned
+     */
+    public int getOwnedCount(int cardIndex) {
+        return ownedCounts[cardIndex];
+    }
+    
+    /**
+     * Adds a newly owned card to the running totals.
+     *
+     * @param card the card the player now owns
+     */
+    private void countOwned(Card card) {
+        int index = Supply.cardIndex(card.getName());
+        if (index >= 0) {
+            ownedCounts[index]++;
+        }
+        if (!card.isCrypto()) {
+            ownedAutomationPoints += card.getValue();
+        }
+    }
+    
+    /**
+     * Removes a card that left the game from the running totals.
+     *
+     * @param card the card the player no longer owns
+     */
+    private void uncountOwned(Card card) {
+        int index = Supply.cardIndex(card.getName());
+        if (index >= 0) {
+            ownedCounts[index]--;
+        }
+        if (!card.isCrypto()) {
+            ownedAutomationPoints -= card.getValue();
+        }
     }
 }
 
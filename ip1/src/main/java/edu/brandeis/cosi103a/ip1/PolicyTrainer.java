@@ -0,0 +1,306 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+/**
+ * Trains the weights of a LinearBuyStrategy by self-play.
+ * 
+ * Each epoch plays a batch of games in parallel. In every game one seat
+ * is the learner, which samples its purchases from a softmax over the
+ * scores of the affordable cards, and the other seat plays the current
+ * weights deterministically. For each learner decision the gradient of the
+ * log probability of the chosen card is stored in a preallocated buffer;
+ * when the game ends, those gradients are weighted by the outcome (+1 for
+ * a win, -1 for a loss) minus the batch's average outcome (REINFORCE with
+ * a baseline), and the weights take one gradient step per epoch.
+ * 
+ * After every epoch the deterministic policy plays evalGames against
+ * GreedyBuyStrategy, alternating seats, and the trainer reports games per
+ * second and that win rate.
+ */
+public class PolicyTrainer {
+    
+    private static final EndPolicy TRAINING_POLICY = EndPolicy.standard();
+    
+    private int threads;
+    private int gamesPerEpoch;
+    private int evalGames;
+    private double learningRate;
+    private long seed;
+    private double[] weights;
+    private double lastWinRate;
+    
+    /**
+     * Constructs a PolicyTrainer that starts from cost-ordered weights.
+     *
+     * @param threads the number of threads to play games on
+     * @param gamesPerEpoch the number of self-play games per weight update
+     * @param evalGames the number of games against the greedy baseline per epoch
+     * @param learningRate the gradient step size
+     * @param seed the seed for game seeds and policy sampling
+     */
+    public PolicyTrainer(int threads, int gamesPerEpoch, int evalGames, double learningRate, long seed) {
+        if (threads <= 0 || gamesPerEpoch < threads || evalGames <= 0) {
+            throw new IllegalArgumentException("need at least one game per thread and one evaluation game");
+        }
+        this.threads = threads;
+        this.gamesPerEpoch = gamesPerEpoch;
+        this.evalGames = evalGames;
+        this.learningRate = learningRate;
+        this.seed = seed;
+        this.weights = LinearBuyStrategy.costOrdered().getWeights();
+    }
+    
+    /**
+     * Runs training epochs, logging one line per epoch.
+     *
+     * @param epochs the number of epochs
+     * @param log where to report progress
+     * @return the trained strategy
+     * @throws InterruptedException if interrupted while waiting for games
+     */
+    public LinearBuyStrategy train(int epochs, PrintStream log) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Rollouts> rollouts = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            rollouts.add(new Rollouts(TRAINING_POLICY.getMaxTurns() / 2 + 1));
+        }
+        
+        try {
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                long start = System.nanoTime();
+                LinearBuyStrategy opponent = new LinearBuyStrategy(weights);
+                
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    Rollouts rollout = rollouts.get(t);
+                    long firstGame = (long) epoch * gamesPerEpoch + (long) gamesPerEpoch * t / threads;
+                    long endGame = (long) epoch * gamesPerEpoch + (long) gamesPerEpoch * (t + 1) / threads;
+                    long sampleSeed = seed * 31 + (long) epoch * threads + t;
+                    results.add(executor.submit(() -> rollout.play(opponent, firstGame, endGame, sampleSeed)));
+                }
+                for (Future<?> result : results) {
+                    try {
+                        result.get();
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("self-play game failed", e.getCause());
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                
+                update(rollouts);
+                lastWinRate = winRateAgainstGreedy(new LinearBuyStrategy(weights), evalGames, epoch);
+                
+                long wins = 0;
+                for (Rollouts rollout : rollouts) {
+                    wins += rollout.wins;
+                }
+                log.printf("epoch %d: %.0f games/sec, self-play win rate %.3f, win rate vs greedy %.3f%n",
+                           epoch + 1, gamesPerEpoch / seconds, (double) wins / gamesPerEpoch, lastWinRate);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return new LinearBuyStrategy(weights);
+    }
+    
+    /**
+     * Gets the win rate against the greedy baseline measured after the last epoch.
+     *
+     * @return the last evaluation win rate
+     */
+    public double getLastWinRate() {
+        return lastWinRate;
+    }
+    
+    /**
+     * Measures how often a strategy beats GreedyBuyStrategy. The strategy
+     * plays seat 1 in even games and seat 2 in odd games.
+     *
+     * @param strategy the strategy to evaluate
+     * @param games the number of games
+     * @param round a number that selects a different set of seeds
+     * @return the fraction of games the strategy won
+     */
+    public static double winRateAgainstGreedy(BuyStrategy strategy, int games, long round) {
+        BuyStrategy greedy = new GreedyBuyStrategy();
+        long wins = LongStream.range(0, games).parallel().filter(i -> {
+            boolean firstSeat = i % 2 == 0;
+            // Negative seeds, so evaluation never replays a training game
+            long seed = ~(round * games + i);
+            Game game = new Game(TRAINING_POLICY, new UniformRandomSource(seed),
+                                 firstSeat ? strategy : greedy, firstSeat ? greedy : strategy);
+            Player winner = game.playGame();
+            return winner == (firstSeat ? game.getPlayer1() : game.getPlayer2());
+        }).count();
+        return (double) wins / games;
+    }
+    
+    /**
+     * Takes one gradient step using every thread's rollouts.
+     * Sum over games of (outcome - baseline) * gradient
+     *   = sum of outcome * gradient - baseline * sum of gradient.
+     */
+    private void update(List<Rollouts> rollouts) {
+        double outcomeSum = 0;
+        for (Rollouts rollout : rollouts) {
+            outcomeSum += rollout.outcomeSum;
+        }
+        double baseline = outcomeSum / gamesPerEpoch;
+        
+        for (int k = 0; k < weights.length; k++) {
+            double gradient = 0;
+            for (Rollouts rollout : rollouts) {
+                gradient += rollout.weightedGradient[k] - baseline * rollout.gradient[k];
+            }
+            weights[k] += learningRate * gradient / gamesPerEpoch;
+        }
+    }
+    
+    /**
+     * Plays self-play games for one thread, acting as the learner's
+     * BuyStrategy. Unlike other strategies it records each decision, so an
+     * instance is only ever used by one thread and one game at a time.
+     * All buffers are allocated once and reused for every game and epoch.
+     */
+    private static class Rollouts implements BuyStrategy {
+        
+        private static final int D = LinearBuyStrategy.WEIGHT_COUNT;
+        private static final int F = LinearBuyStrategy.FEATURES_PER_CARD;
+        
+        // One row per learner decision in the current game: the gradient of
+        // the log probability of the card chosen in that state
+        private double[] decisionGradients;
+        private int decisions;
+        
+        // Per-decision scratch space
+        private double[] candidateFeatures = new double[D];
+        private double[] probabilities = new double[Supply.CARD_TYPES];
+        
+        // Sums over the epoch's games
+        private double[] gradient = new double[D];
+        private double[] weightedGradient = new double[D];
+        private double outcomeSum;
+        private long wins;
+        
+        private double[] weights = new double[D];
+        private Random random;
+        
+        Rollouts(int maxDecisions) {
+            this.decisionGradients = new double[maxDecisions * D];
+        }
+        
+        /**
+         * Plays the games with the given game numbers and sums their gradients.
+         */
+        void play(LinearBuyStrategy opponent, long firstGame, long endGame, long sampleSeed) {
+            System.arraycopy(opponent.getWeights(), 0, weights, 0, D);
+            Arrays.fill(gradient, 0);
+            Arrays.fill(weightedGradient, 0);
+            outcomeSum = 0;
+            wins = 0;
+            random = new Random(sampleSeed);
+            
+            for (long g = firstGame; g < endGame; g++) {
+                boolean firstSeat = g % 2 == 0;
+                decisions = 0;
+                Game game = new Game(TRAINING_POLICY, new UniformRandomSource(g),
+                                     firstSeat ? this : opponent, firstSeat ? opponent : this);
+                Player winner = game.playGame();
+                boolean won = winner == (firstSeat ? game.getPlayer1() : game.getPlayer2());
+                double outcome = won ? 1 : -1;
+                
+                if (won) {
+                    wins++;
+                }
+                outcomeSum += outcome;
+                for (int row = 0; row < decisions; row++) {
+                    for (int k = 0; k < D; k++) {
+                        double value = decisionGradients[row * D + k];
+                        gradient[k] += value;
+                        weightedGradient[k] += outcome * value;
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Samples a card from the softmax policy and records the gradient of
+         * its log probability.
+         */
+        @Override
+        public String chooseCard(Supply supply, Player player, int budget) {
+            double maxScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                String cardName = Supply.getCardName(i);
+                if (supply.isAvailable(cardName) && supply.getCardCost(cardName) <= budget) {
+                    LinearBuyStrategy.features(supply, player, budget, i, candidateFeatures, i * F);
+                    double score = 0;
+                    for (int f = 0; f < F; f++) {
+                        score += weights[i * F + f] * candidateFeatures[i * F + f];
+                    }
+                    probabilities[i] = score;
+                    maxScore = Math.max(maxScore, score);
+                } else {
+                    probabilities[i] = Double.NEGATIVE_INFINITY;
+                }
+            }
+            if (maxScore == Double.NEGATIVE_INFINITY) {
+                return null;
+            }
+            
+            double total = 0;
+            for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                probabilities[i] = Math.exp(probabilities[i] - maxScore);
+                total += probabilities[i];
+            }
+            double target = random.nextDouble();
+            int chosen = -1;
+            for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                probabilities[i] /= total;
+                if (probabilities[i] > 0 && (chosen < 0 || target >= 0)) {
+                    chosen = i;
+                    target -= probabilities[i];
+                }
+            }
+            
+            // grad log p(chosen) = features(chosen) - sum over cards of p(card) * features(card)
+            int row = decisions++ * D;
+            for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                for (int f = 0; f < F; f++) {
+                    double feature = probabilities[i] > 0 ? candidateFeatures[i * F + f] : 0;
+                    double actual = i == chosen ? feature : 0;
+                    decisionGradients[row + i * F + f] = actual - probabilities[i] * feature;
+                }
+            }
+            return Supply.getCardName(chosen);
+        }
+    }
+    
+    /**
+     * Main method to train a policy and print its weights.
+     *
+     * @param args epochs, games per epoch (optional), threads (optional)
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int epochs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int gamesPerEpoch = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                                      : Runtime.getRuntime().availableProcessors();
+        
+        PolicyTrainer trainer = new PolicyTrainer(threads, gamesPerEpoch, 1000, 0.5, 1);
+        LinearBuyStrategy strategy = trainer.train(epochs, System.out);
+        System.out.println("Weights: " + strategy);
+    }
+}
@@ -0,0 +1,280 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A fixed-size sketch of a distribution that answers quantile queries,
+ * in the style of a merging t-digest.
+ * 
+ * Values are collected in a buffer. When the buffer fills, they are sorted
+ * and merged into a list of centroids (mean and weight). Centroids near the
+ * median may absorb many values, while centroids near the tails stay small,
+ * so extreme quantiles stay accurate. The arcsine scale function keeps the
+ * number of centroids at most compression + 1, no matter how many values
+ * are added.
+ * 
+ * All arrays are allocated up front, so adding and merging never allocate.
+ * A sketch is not thread safe; give each thread its own and merge them.
+ */
+public class QuantileSketch {
+    
+    private double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+    private double[] buffer;
+    private int bufferCount;
+    private double[] scratchMeans;
+    private double[] scratchWeights;
+    private long count;
+    private double min;
+    private double max;
+    
+    /**
+     * Constructs an empty QuantileSketch.
+     *
+     * @param compression the accuracy parameter; 100 gives about 1% error at the median
+     */
+    public QuantileSketch(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("compression must be at least 10: " + compression);
+        }
+        int capacity = (int) Math.ceil(compression) + 2;
+        this.compression = compression;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[capacity * 5];
+        this.scratchMeans = new double[capacity * 2 + buffer.length];
+        this.scratchWeights = new double[scratchMeans.length];
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+    
+    /**
+     * Adds one value to the sketch.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        if (bufferCount == buffer.length) {
+            compress();
+        }
+        buffer[bufferCount++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+    
+    /**
+     * Adds all values from another sketch to this one.
+     * The other sketch keeps the same values but has its buffer flushed.
+     *
+     * @param other the sketch to merge in
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        compress();
+        other.compress();
+        
+        // Merge the two sorted centroid lists into scratch
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < centroidCount || j < other.centroidCount) {
+            if (j == other.centroidCount || (i < centroidCount && means[i] <= other.means[j])) {
+                scratchMeans[n] = means[i];
+                scratchWeights[n++] = weights[i++];
+            } else {
+                scratchMeans[n] = other.means[j];
+                scratchWeights[n++] = other.weights[j++];
+            }
+        }
+        
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        collapse(n);
+    }
+    
+    /**
+     * Estimates the value at a quantile.
+     *
+     * @param q the quantile, from 0 to 1
+     * @return the estimated value, or NaN if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        compress();
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        
+        double target = q * count;
+        double previousCenter = 0;
+        double previousMean = min;
+        double cumulative = 0;
+        for (int i = 0; i < centroidCount; i++) {
+            double center = cumulative + weights[i] / 2;
+            if (target < center) {
+                return interpolate(target, previousCenter, previousMean, center, means[i]);
+            }
+            previousCenter = center;
+            previousMean = means[i];
+            cumulative += weights[i];
+        }
+        return interpolate(target, previousCenter, previousMean, count, max);
+    }
+    
+    /**
+     * Gets the number of values added.
+     *
+     * @return the value count
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Removes all values.
+     */
+    public void reset() {
+        centroidCount = 0;
+        bufferCount = 0;
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+    
+    /**
+     * Writes the sketch to a binary stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        compress();
+        out.writeDouble(compression);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(centroidCount);
+        for (int i = 0; i < centroidCount; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+    
+    /**
+     * Reads a sketch written by writeTo().
+     *
+     * @param in the stream to read from
+     * @return the sketch that was read
+     * @throws IOException if reading fails or the data is invalid
+     */
+    public static QuantileSketch readFrom(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch(in.readDouble());
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int centroids = in.readInt();
+        if (centroids < 0 || centroids > sketch.means.length) {
+            throw new IOException("invalid centroid count: " + centroids);
+        }
+        for (int i = 0; i < centroids; i++) {
+            sketch.means[i] = in.readDouble();
+            sketch.weights[i] = in.readDouble();
+        }
+        sketch.centroidCount = centroids;
+        return sketch;
+    }
+    
+    /**
+     * Merges the buffered values into the centroids.
+     */
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferCount);
+        
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < centroidCount || j < bufferCount) {
+            if (j == bufferCount || (i < centroidCount && means[i] <= buffer[j])) {
+                scratchMeans[n] = means[i];
+                scratchWeights[n++] = weights[i++];
+            } else {
+                scratchMeans[n] = buffer[j++];
+                scratchWeights[n++] = 1;
+            }
+        }
+        
+        bufferCount = 0;
+        collapse(n);
+    }
+    
+    /**
+     * Collapses n sorted centroids in scratch into the centroid list.
+     * Neighbors are combined while they span at most one unit of the
+     * arcsine scale, which keeps tail centroids small.
+     */
+    private void collapse(int n) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += scratchWeights[i];
+        }
+        
+        int out = 0;
+        double mean = scratchMeans[0];
+        double weight = scratchWeights[0];
+        double cumulative = 0;
+        double leftScale = scale(0);
+        for (int i = 1; i < n; i++) {
+            double combined = weight + scratchWeights[i];
+            if (scale((cumulative + combined) / total) - leftScale <= 1) {
+                mean += (scratchMeans[i] - mean) * scratchWeights[i] / combined;
+                weight = combined;
+            } else {
+                means[out] = mean;
+                weights[out++] = weight;
+                cumulative += weight;
+                leftScale = scale(cumulative / total);
+                mean = scratchMeans[i];
+                weight = scratchWeights[i];
+            }
+        }
+        means[out] = mean;
+        weights[out++] = weight;
+        centroidCount = out;
+    }
+    
+    /**
+     * The arcsine scale function, which spans compression / 2 units.
+     */
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(q, 1) - 1);
+    }
+    
+    /**
+     * Linearly interpolates between two (rank, value) points.
+     */
+    private static double interpolate(double rank, double leftRank, double leftValue,
+                                      double rightRank, double rightValue) {
+        if (rightRank <= leftRank) {
+            return rightValue;
+        }
+        return leftValue + (rightValue - leftValue) * (rank - leftRank) / (rightRank - leftRank);
+    }
+}
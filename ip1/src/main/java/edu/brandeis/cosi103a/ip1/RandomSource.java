@@ -0,0 +1,44 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.List;
+
+/**
+ * Supplies the random choices made during a game of Automation: The Game.
+ * 
+ * There are only two kinds of random choice:
+ * - Which card a player draws next from their draw pile
+ * - Which player takes the first turn
+ * 
+ * Routing both through one interface lets a game be replayed from a seed
+ * and lets simulations bias the choices (see ImportanceSampler).
+ */
+public interface RandomSource {
+    
+    /**
+     * Picks one card from the first bound cards of a pile.
+     *
+     * @param cards the pile being drawn from
+     * @param bound the number of cards to choose from, starting at index 0
+     * @return the index of the chosen card, in [0, bound)
+     */
+    int pickCard(List<Card> cards, int bound);
+    
+    /**
+     * Chooses whether player 1 takes the first turn.
+     *
+     * @return true if player 1 starts, false if player 2 starts
+     */
+    boolean player1Starts();
+    
+    /**
+     * Gets the source a player in the given seat should draw with.
+     * Sources that treat both seats the same return themselves.
+     *
+     * @param seat the seat number, 1 or 2
+     * @return the random source for that seat
+     */
+    default RandomSource forSeat(int seat) {
+        return this;
+    }
+}
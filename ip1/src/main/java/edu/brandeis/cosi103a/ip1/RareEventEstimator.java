@@ -0,0 +1,268 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Estimates the probability of rare game outcomes with importance sampling.
+ * 
+ * Games are played with an ImportanceSampler that biases draws and the
+ * starting player towards the outcome of interest. Each game where the
+ * event happens contributes its likelihood ratio instead of 1, so the mean
+ * is still an unbiased estimate of the probability in normal games, but
+ * far fewer games are needed when the bias is well chosen.
+ * 
+ * estimateAdaptive() picks the bias automatically by running short pilot
+ * batches and keeping the proposal with the lowest relative error.
+ */
+public class RareEventEstimator {
+    
+    private static final int ADAPTIVE_ROUNDS = 3;
+    private static final double INITIAL_TILT_STEP = 0.2;
+    private static final double INITIAL_START_STEP = 0.2;
+    
+    private EndPolicy endPolicy;
+    private Predicate<Game> event;
+    
+    /**
+     * Constructs a RareEventEstimator.
+     *
+     * @param endPolicy the end policy for every simulated game
+     * @param event the outcome to estimate, tested on each finished game
+     */
+    public RareEventEstimator(EndPolicy endPolicy, Predicate<Game> event) {
+        this.endPolicy = endPolicy;
+        this.event = event;
+    }
+    
+    /**
+     * Estimates the event probability with a fixed proposal.
+     *
+     * @param player1Tilt the draw tilt for player 1
+     * @param player2Tilt the draw tilt for player 2
+     * @param player1StartProbability the probability that player 1 starts
+     * @param games the number of games to play
+     * @param seed the seed for the random number generator
+     * @return the estimate with its variance
+     */
+    public Estimate estimate(double player1Tilt, double player2Tilt,
+                             double player1StartProbability, int games, long seed) {
+        if (games < 2) {
+            throw new IllegalArgumentException("games must be at least 2: " + games);
+        }
+        Random random = new Random(seed);
+        int hits = 0;
+        double sum = 0;
+        double sumSquares = 0;
+        double weightSum = 0;
+        double weightSumSquares = 0;
+        
+        for (int i = 0; i < games; i++) {
+            ImportanceSampler sampler = new ImportanceSampler(
+                    random, player1Tilt, player2Tilt, player1StartProbability);
+            Game game = new Game(endPolicy, sampler);
+            game.playGame();
+            
+            double weight = sampler.getLikelihoodRatio();
+            weightSum += weight;
+            weightSumSquares += weight * weight;
+            if (event.test(game)) {
+                hits++;
+                sum += weight;
+                sumSquares += weight * weight;
+            }
+        }
+        
+        double mean = sum / games;
+        double variance = Math.max(0, (sumSquares - games * mean * mean) / (games - 1));
+        double effectiveSampleSize = weightSum * weightSum / weightSumSquares;
+        return new Estimate(player1Tilt, player2Tilt, player1StartProbability,
+                            games, hits, mean, variance, effectiveSampleSize);
+    }
+    
+    /**
+     * Estimates the event probability after searching for a good proposal.
+     * 
+     * Starting from an unbiased game, each round tries moving each tilt and
+     * the starting probability up and down by a step, runs pilotGames
+     * games for every candidate, and keeps the one with the lowest relative
+     * error. The step halves every round. The final estimate uses fresh
+     * games, so the pilot runs do not bias it.
+     *
+     * @param pilotGames the number of games per pilot batch
+     * @param games the number of games for the final estimate
+     * @param seed the seed for the random number generator
+     * @return the final estimate with its variance
+     */
+    public Estimate estimateAdaptive(int pilotGames, int games, long seed) {
+        Random seeds = new Random(seed);
+        Estimate best = estimate(0, 0, 0.5, pilotGames, seeds.nextLong());
+        double tiltStep = INITIAL_TILT_STEP;
+        double startStep = INITIAL_START_STEP;
+        
+        for (int round = 0; round < ADAPTIVE_ROUNDS; round++) {
+            Estimate center = best;
+            double[][] candidates = {
+                {center.player1Tilt + tiltStep, center.player2Tilt, center.player1StartProbability},
+                {center.player1Tilt - tiltStep, center.player2Tilt, center.player1StartProbability},
+                {center.player1Tilt, center.player2Tilt + tiltStep, center.player1StartProbability},
+                {center.player1Tilt, center.player2Tilt - tiltStep, center.player1StartProbability},
+                {center.player1Tilt, center.player2Tilt, center.player1StartProbability + startStep},
+                {center.player1Tilt, center.player2Tilt, center.player1StartProbability - startStep},
+            };
+            for (double[] candidate : candidates) {
+                if (candidate[2] <= 0 || candidate[2] >= 1) {
+                    continue;
+                }
+                Estimate pilot = estimate(candidate[0], candidate[1], candidate[2],
+                                          pilotGames, seeds.nextLong());
+                if (pilot.isBetterThan(best)) {
+                    best = pilot;
+                }
+            }
+            tiltStep /= 2;
+            startStep /= 2;
+        }
+        
+        return estimate(best.player1Tilt, best.player2Tilt, best.player1StartProbability,
+                        games, seeds.nextLong());
+    }
+    
+    /**
+     * The result of an importance-sampled estimate.
+     */
+    public static class Estimate {
+        private double player1Tilt;
+        private double player2Tilt;
+        private double player1StartProbability;
+        private int games;
+        private int hits;
+        private double probability;
+        private double variance;
+        private double effectiveSampleSize;
+        
+        Estimate(double player1Tilt, double player2Tilt, double player1StartProbability,
+                 int games, int hits, double probability, double variance,
+                 double effectiveSampleSize) {
+            this.player1Tilt = player1Tilt;
+            this.player2Tilt = player2Tilt;
+            this.player1StartProbability = player1StartProbability;
+            this.games = games;
+            this.hits = hits;
+            this.probability = probability;
+            this.variance = variance;
+            this.effectiveSampleSize = effectiveSampleSize;
+        }
+        
+        /**
+         * Gets the estimated probability of the event in normal games.
+         *
+         * @return the probability estimate
+         */
+        public double getProbability() {
+            return probability;
+        }
+        
+        /**
+         * Gets the sample variance of the weighted event indicator.
+         *
+         * @return the per-game variance
+         */
+        public double getVariance() {
+            return variance;
+        }
+        
+        /**
+         * Gets the standard error of the probability estimate.
+         *
+         * @return the standard error
+         */
+        public double getStandardError() {
+            return Math.sqrt(variance / games);
+        }
+        
+        /**
+         * Gets the standard error divided by the estimate.
+         *
+         * @return the relative error, or infinity if the event never happened
+         */
+        public double getRelativeError() {
+            return probability > 0 ? getStandardError() / probability : Double.POSITIVE_INFINITY;
+        }
+        
+        /**
+         * Gets the effective sample size of the likelihood ratios. Values far
+         * below the number of games mean the proposal is too aggressive.
+         *
+         * @return the effective sample size
+         */
+        public double getEffectiveSampleSize() {
+            return effectiveSampleSize;
+        }
+        
+        /**
+         * Gets the number of games played.
+         *
+         * @return the game count
+         */
+        public int getGames() {
+            return games;
+        }
+        
+        /**
+         * Gets the number of games where the event happened.
+         *
+         * @return the hit count
+         */
+        public int getHits() {
+            return hits;
+        }
+        
+        /**
+         * Gets the draw tilt used for player 1.
+         *
+         * @return player 1's tilt
+         */
+        public double getPlayer1Tilt() {
+            return player1Tilt;
+        }
+        
+        /**
+         * Gets the draw tilt used for player 2.
+         *
+         * @return player 2's tilt
+         */
+        public double getPlayer2Tilt() {
+            return player2Tilt;
+        }
+        
+        /**
+         * Gets the probability used for player 1 starting.
+         *
+         * @return the starting probability for player 1
+         */
+        public double getPlayer1StartProbability() {
+            return player1StartProbability;
+        }
+        
+        /**
+         * Compares pilot estimates: more hits win while the event is still
+         * rarely seen, otherwise the lower relative error wins.
+         */
+        private boolean isBetterThan(Estimate other) {
+            if (hits == 0 || other.hits == 0) {
+                return hits > other.hits;
+            }
+            return getRelativeError() < other.getRelativeError();
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(
+                    "p=%.6g se=%.3g rel=%.3f hits=%d/%d ess=%.1f (tilt1=%.3f tilt2=%.3f start1=%.3f)",
+                    probability, getStandardError(), getRelativeError(), hits, games,
+                    effectiveSampleSize, player1Tilt, player2Tilt, player1StartProbability);
+        }
+    }
+}
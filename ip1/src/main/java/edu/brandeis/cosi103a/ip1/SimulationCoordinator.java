@@ -0,0 +1,321 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a batch of seeded games across several worker JVMs on this machine.
+ * 
+ * The seed range is split into one contiguous slice per worker. Each worker
+ * is a separate SimulationWorker process that connects back over a
+ * loopback socket and streams GameStatistics every few games; the coordinator
+ * merges each one into the running total as soon as it arrives.
+ * 
+ * If a worker exits or its connection drops before it finishes, the seeds
+ * it has not reported yet are handed to a new worker. Every seed is counted
+ * exactly once, so the result matches playing the range in one process.
+ * A worker that stays connected but sends nothing for the read timeout,
+ * including during the handshake, counts as failed in the same way, so
+ * reportEvery games must fit comfortably inside the timeout.
+ */
+public class SimulationCoordinator {
+    
+    private static final int DEFAULT_REPORT_EVERY = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long CONNECT_TIMEOUT_SECONDS = 60;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 60_000;
+    
+    private int workers;
+    private int reportEvery;
+    private int readTimeoutMillis;
+    private String classpath;
+    private String workerMainClass;
+    private GameStatistics total;
+    private AtomicInteger nextWorkerId;
+    private Map<Integer, CompletableFuture<Socket>> pendingConnections;
+    
+    /**
+     * Constructs a SimulationCoordinator that starts the given number of workers.
+     *
+     * @param workers the number of worker processes
+     */
+    public SimulationCoordinator(int workers) {
+        this(workers, DEFAULT_REPORT_EVERY, defaultClasspath(), SimulationWorker.class.getName());
+    }
+    
+    /**
+     * Constructs a SimulationCoordinator with explicit worker settings.
+     *
+     * @param workers the number of worker processes
+     * @param reportEvery the number of games per PROGRESS frame
+     * @param classpath the classpath for worker JVMs
+     * @param workerMainClass the class each worker JVM runs
+     */
+    SimulationCoordinator(int workers, int reportEvery, String classpath, String workerMainClass) {
+        this(workers, reportEvery, DEFAULT_READ_TIMEOUT_MILLIS, classpath, workerMainClass);
+    }
+    
+    /**
+     * Constructs a SimulationCoordinator with explicit worker settings and
+     * read timeout.
+     *
+     * @param workers the number of worker processes
+     * @param reportEvery the number of games per PROGRESS frame
+     * @param readTimeoutMillis how long a worker may send nothing before it
+     *                          is treated as failed
+     * @param classpath the classpath for worker JVMs
+     * @param workerMainClass the class each worker JVM runs
+     */
+    SimulationCoordinator(int workers, int reportEvery, int readTimeoutMillis,
+                          String classpath, String workerMainClass) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (readTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("readTimeoutMillis must be positive: " + readTimeoutMillis);
+        }
+        this.workers = workers;
+        this.reportEvery = reportEvery;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.classpath = classpath;
+        this.workerMainClass = workerMainClass;
+    }
+    
+    /**
+     * Plays one game for every seed in a range and merges the results.
+     *
+     * @param fromSeed the first seed to play
+     * @param toSeed the seed to stop at (exclusive)
+     * @return the merged statistics of all games
+     * @throws IOException if a slice could not be finished after several attempts
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public GameStatistics run(long fromSeed, long toSeed) throws IOException, InterruptedException {
+        total = new GameStatistics();
+        nextWorkerId = new AtomicInteger();
+        pendingConnections = new ConcurrentHashMap<>();
+        
+        long games = toSeed - fromSeed;
+        int slices = (int) Math.max(1, Math.min(workers, games));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        
+        try (ServerSocket server = new ServerSocket(0, slices, InetAddress.getLoopbackAddress())) {
+            executor.submit(() -> acceptConnections(server, executor));
+            
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < slices; i++) {
+                long start = fromSeed + games * i / slices;
+                long end = fromSeed + games * (i + 1) / slices;
+                results.add(executor.submit(() -> {
+                    runSlice(server.getLocalPort(), start, end);
+                    return null;
+                }));
+            }
+            
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("worker slice failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Accepts worker connections, reading each handshake on its own thread
+     * so a worker that connects and then stalls cannot hold up the others.
+     */
+    private void acceptConnections(ServerSocket server, ExecutorService executor) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setSoTimeout(readTimeoutMillis);
+                executor.submit(() -> handshake(socket));
+            } catch (IOException e) {
+                // Server closed
+            }
+        }
+    }
+    
+    /**
+     * Hands a connection to the slice that started the worker, identified
+     * by the id the worker sends first. The socket's read timeout stays set
+     * for the frames that follow.
+     */
+    private void handshake(Socket socket) {
+        try {
+            int workerId = new DataInputStream(socket.getInputStream()).readInt();
+            CompletableFuture<Socket> pending = pendingConnections.get(workerId);
+            if (pending == null || !pending.complete(socket)) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            // The worker died or stalled during the handshake; its slice
+            // times out waiting for the connection and starts another
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing more to release
+            }
+        }
+    }
+    
+    /**
+     * Plays one slice of seeds, restarting from the last reported seed
+     * whenever a worker fails.
+     */
+    private void runSlice(int port, long start, long end) throws IOException, InterruptedException {
+        Slice slice = new Slice(start, end);
+        IOException lastFailure = null;
+        
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && !slice.isDone(); attempt++) {
+            int workerId = nextWorkerId.getAndIncrement();
+            CompletableFuture<Socket> connection = new CompletableFuture<>();
+            pendingConnections.put(workerId, connection);
+            Process process = startWorker(port, workerId, slice.next, slice.end);
+            process.onExit().thenRun(() -> connection.completeExceptionally(
+                    new IOException("worker " + workerId + " exited before connecting")));
+            
+            try (Socket socket = connection.get(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                readFrames(socket, slice);
+            } catch (ExecutionException e) {
+                lastFailure = new IOException(e.getCause().getMessage(), e.getCause());
+            } catch (TimeoutException e) {
+                lastFailure = new IOException("worker " + workerId + " did not connect", e);
+            } catch (SocketTimeoutException e) {
+                lastFailure = new IOException("worker " + workerId + " sent nothing for "
+                                              + readTimeoutMillis + " ms", e);
+            } catch (IOException e) {
+                lastFailure = e;
+            } finally {
+                pendingConnections.remove(workerId);
+                process.destroy();
+                process.waitFor();
+            }
+            
+            if (!slice.isDone()) {
+                System.err.println("Worker " + workerId + " failed, reassigning seeds "
+                                   + slice.next + "-" + slice.end + ": " + lastFailure.getMessage());
+            }
+        }
+        
+        if (!slice.isDone()) {
+            throw new IOException("seeds " + slice.next + "-" + slice.end + " failed "
+                                  + MAX_ATTEMPTS + " times", lastFailure);
+        }
+    }
+    
+    /**
+     * Reads frames from a worker until it reports DONE, merging each batch
+     * into the total and moving the slice forward as seeds are reported.
+     */
+    private void readFrames(Socket socket, Slice slice) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        while (true) {
+            int frame = in.read();
+            if (frame == SimulationWorker.FRAME_DONE) {
+                slice.next = slice.end;
+                return;
+            }
+            if (frame != SimulationWorker.FRAME_PROGRESS) {
+                throw new EOFException("worker connection closed at seed " + slice.next);
+            }
+            long reached = in.readLong();
+            GameStatistics partial = GameStatistics.readFrom(in);
+            synchronized (this) {
+                total.merge(partial);
+            }
+            slice.next = reached;
+        }
+    }
+    
+    /**
+     * Starts a worker JVM for a range of seeds.
+     */
+    private Process startWorker(int port, int workerId, long fromSeed, long toSeed) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(
+                java, "-cp", classpath, workerMainClass,
+                InetAddress.getLoopbackAddress().getHostAddress(), String.valueOf(port),
+                String.valueOf(workerId), String.valueOf(fromSeed), String.valueOf(toSeed),
+                String.valueOf(reportEvery));
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return builder.start();
+    }
+    
+    /**
+     * Finds the classpath entry this class was loaded from.
+     */
+    private static String defaultClasspath() {
+        try {
+            return new File(SimulationWorker.class.getProtectionDomain()
+                    .getCodeSource().getLocation().toURI()).getPath();
+        } catch (URISyntaxException e) {
+            return System.getProperty("java.class.path");
+        }
+    }
+    
+    /**
+     * Main method to play a range of seeds across worker processes.
+     *
+     * @param args worker count, first seed, end seed (exclusive)
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 3) {
+            System.err.println("usage: SimulationCoordinator workers fromSeed toSeed");
+            System.exit(2);
+        }
+        SimulationCoordinator coordinator = new SimulationCoordinator(Integer.parseInt(args[0]));
+        long start = System.nanoTime();
+        GameStatistics stats = coordinator.run(Long.parseLong(args[1]), Long.parseLong(args[2]));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        System.out.println(stats);
+        System.out.printf("Time: %.2f s (%.0f games/sec)%n", seconds, stats.getGames() / seconds);
+    }
+    
+    /**
+     * The seeds one worker is responsible for. next is the first seed
+     * whose result has not been received yet.
+     */
+    private static class Slice {
+        long next;
+        long end;
+        
+        Slice(long start, long end) {
+            this.next = start;
+            this.end = end;
+        }
+        
+        boolean isDone() {
+            return next >= end;
+        }
+    }
+}
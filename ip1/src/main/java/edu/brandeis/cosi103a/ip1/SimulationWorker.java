@@ -0,0 +1,84 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * A worker process started by SimulationCoordinator.
+ * 
+ * The worker plays one seeded game for every seed in its range and sends
+ * the results back over a local socket as a series of frames:
+ * - On connecting: its worker id (int)
+ * - PROGRESS: the next seed to play (long) and GameStatistics for the games since the last frame
+ * - DONE: sent once the whole range has been played
+ * 
+ * If the worker dies, the coordinator has every frame up to the last
+ * PROGRESS and restarts the range from that seed.
+ */
+public class SimulationWorker {
+    
+    static final byte FRAME_PROGRESS = 1;
+    static final byte FRAME_DONE = 2;
+    
+    /**
+     * Runs a worker.
+     *
+     * @param args host, port, worker id, first seed, end seed (exclusive), games per frame
+     * @throws IOException if the coordinator cannot be reached
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 6) {
+            System.err.println("usage: SimulationWorker host port workerId fromSeed toSeed reportEvery");
+            System.exit(2);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int workerId = Integer.parseInt(args[2]);
+        long fromSeed = Long.parseLong(args[3]);
+        long toSeed = Long.parseLong(args[4]);
+        int reportEvery = Integer.parseInt(args[5]);
+        
+        try (Socket socket = new Socket(host, port)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(workerId);
+            out.flush();
+            
+            streamResults(out, fromSeed, toSeed, reportEvery);
+            
+            out.writeByte(FRAME_DONE);
+            out.flush();
+        }
+    }
+    
+    /**
+     * Plays every seed in a range, sending a PROGRESS frame after every
+     * reportEvery games and after the last one.
+     *
+     * @param out the stream to the coordinator
+     * @param fromSeed the first seed to play
+     * @param toSeed the seed to stop at (exclusive)
+     * @param reportEvery the number of games per frame
+     * @throws IOException if writing fails
+     */
+    static void streamResults(DataOutputStream out, long fromSeed, long toSeed, int reportEvery)
+            throws IOException {
+        GameStatistics stats = new GameStatistics();
+        for (long seed = fromSeed; seed < toSeed; seed++) {
+            Game game = new Game(seed);
+            game.playGame();
+            stats.record(game);
+            
+            if (stats.getGames() == reportEvery || seed + 1 == toSeed) {
+                out.writeByte(FRAME_PROGRESS);
+                out.writeLong(seed + 1);
+                stats.writeTo(out);
+                out.flush();
+                stats.reset();
+            }
+        }
+    }
+}
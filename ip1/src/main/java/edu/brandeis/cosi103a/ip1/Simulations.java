@@ -0,0 +1,131 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Ad hoc queries over a range of seeded games of Automation: The Game.
+ * 
+ * range() returns a parallel stream of lazily played GameRecords, so a
+ * question is an ordinary stream pipeline, for example the win rate of
+ * player 1 when they buy a Framework within the first 10 turns:
+ * 
+ *     Simulations.range(0, 100000)
+ *         .filter(r -> r.boughtBefore(1, "Framework", 10))
+ *         .collect(Simulations.winRate(1));
+ * 
+ * Games are only played as far as the pipeline asks, so the filter above
+ * stops each game after at most 10 turns unless it passes.
+ */
+public class Simulations {
+    
+    private Simulations() {
+    }
+    
+    /**
+     * Streams the standard games for a range of seeds, as created by new Game(seed).
+     *
+     * @param from the first seed
+     * @param to one past the last seed
+     * @return a parallel stream of unplayed game records
+     */
+    public static Stream<GameRecord> range(long from, long to) {
+        return range(from, to, Game::new);
+    }
+    
+    /**
+     * Streams games for a range of seeds, created by a factory. Use this
+     * to query games with other end policies or buy strategies.
+     *
+     * @param from the first seed
+     * @param to one past the last seed
+     * @param games creates the game for a seed
+     * @return a parallel stream of unplayed game records
+     */
+    public static Stream<GameRecord> range(long from, long to, LongFunction<Game> games) {
+        if (to < from) {
+            throw new IllegalArgumentException("Empty seed range " + from + "-" + to);
+        }
+        return StreamSupport.stream(new SeedSpliterator(from, to, games), true);
+    }
+    
+    /**
+     * Creates a collector for the fraction of games a player won.
+     *
+     * @param seat the player number, 1 or 2
+     * @return a collector of win rate, or NaN if there were no games
+     */
+    public static Collector<GameRecord, long[], Double> winRate(int seat) {
+        return Collector.of(() -> new long[2], (counts, record) -> {
+            counts[0]++;
+            if (record.getWinner() == seat) {
+                counts[1]++;
+            }
+        }, (left, right) -> {
+            left[0] += right[0];
+            left[1] += right[1];
+            return left;
+        }, counts -> counts[0] == 0 ? Double.NaN : (double) counts[1] / counts[0]);
+    }
+    
+    /**
+     * Splits a seed range in half for each fork-join task, so parallel
+     * queries get even shares of games.
+     */
+    private static class SeedSpliterator implements Spliterator<GameRecord> {
+        
+        private long next;
+        private final long end;
+        private final LongFunction<Game> games;
+        
+        SeedSpliterator(long from, long to, LongFunction<Game> games) {
+            this.next = from;
+            this.end = to;
+            this.games = games;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super GameRecord> action) {
+            if (next >= end) {
+                return false;
+            }
+            long seed = next++;
+            action.accept(new GameRecord(seed, games.apply(seed)));
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super GameRecord> action) {
+            for (long seed = next; seed < end; seed++) {
+                action.accept(new GameRecord(seed, games.apply(seed)));
+            }
+            next = end;
+        }
+        
+        @Override
+        public Spliterator<GameRecord> trySplit() {
+            long middle = next + (end - next) / 2;
+            if (middle <= next) {
+                return null;
+            }
+            SeedSpliterator prefix = new SeedSpliterator(next, middle, games);
+            next = middle;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+        
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
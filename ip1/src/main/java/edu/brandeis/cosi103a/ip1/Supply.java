@@ -13,6 +13,14 @@ import java.util.Map;
  */
 public class Supply {
     
+    /** The number of different card types in the supply. */
+    public static final int CARD_TYPES = 6;
+    
+    // Card names in index order, used wherever counts are kept in arrays
+    private static final String[] CARD_NAMES = {
+        "Method", "Module", "Framework", "Bitcoin", "Ethereum", "Dogecoin"
+    };
+    
     // Store card definitions: name -> {cost, value, isCrypto}
     private static class CardDefinition {
         int cost;
@@ -28,6 +36,7 @@ public class Supply {
     
     private Map<String, Integer> cardCounts;
     private Map<String, CardDefinition> cardDefinitions;
+    private int emptyPileCount;
     
     /**
      * Constructs a Supply with initial quantities of all cards.
@@ -95,11 +104,26 @@ public class Supply {
         CardDefinition def = cardDefinitions.get(cardName);
         Card card = new Card(cardName, def.cost, def.value, def.isCrypto);
         
-        cardCounts.put(cardName, cardCounts.get(cardName) - 1);
+        int remaining = cardCounts.get(cardName) - 1;
+        cardCounts.put(cardName, remaining);
+        if (remaining == 0) {
+            emptyPileCount++;
+        }
         
         return card;
     }
     
+    /**
+     * Gets the number of copies of a card left in the supply.
+     *
+     * @param cardName the name of the card
+     * @return the remaining count, or 0 if the card doesn't exist
+     */
+    public int getCardCount(String cardName) {
+        Integer count = cardCounts.get(cardName);
+        return count != null ? count : 0;
+    }
+    
     /**
      * Gets the cost of a card by name.
      *
@@ -111,6 +135,43 @@ public class Supply {
         return def != null ? def.cost : -1;
     }
     
+    /**
+     * Gets the index of a card type, for code that keeps per-type counts in arrays.
+     * Indexes run from 0 to CARD_TYPES - 1 in the order
+     * Method, Module, Framework, Bitcoin, Ethereum, Dogecoin.
+     *
+     * @param cardName the name of the card
+     * @return the card's index, or -1 if the card doesn't exist
+     */
+    public static int cardIndex(String cardName) {
+        for (int i = 0; i < CARD_TYPES; i++) {
+            if (CARD_NAMES[i].equals(cardName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the name of the card type at an index.
+     *
+     * @param index the card index, from 0 to CARD_TYPES - 1
+     * @return the card's name
+     */
+    public static String getCardName(int index) {
+        return CARD_NAMES[index];
+    }
+    
+    /**
+     * Gets the number of supply piles that have run out.
+     * Kept up to date by buyCard so it can be checked every turn.
+     *
+     * @return the number of card types with no copies left
+     */
+    public int getEmptyPileCount() {
+        return emptyPileCount;
+    }
+    
     /**
      * Checks if the game is over.
      * The game ends when all Framework cards have been purchased.
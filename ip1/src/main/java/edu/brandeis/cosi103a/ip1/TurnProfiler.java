@@ -0,0 +1,239 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Opt-in timing of the phases of a turn in Automation: The Game.
+ * 
+ * Run with -Dip1.profile=true to enable. Every Nth turn on each thread
+ * (-Dip1.profile.sampleEvery, default 16) is timed with System.nanoTime,
+ * and each phase's duration is added to that thread's log2 histogram.
+ * report() merges every thread's histograms. While enabled, the game also
+ * emits JFR events for game start, game end and reshuffles, which show up
+ * in a recording started with -XX:StartFlightRecording.
+ * 
+ * ENABLED is a static final read once at startup. Every use is written as
+ * "if (TurnProfiler.ENABLED)" or "TurnProfiler.ENABLED ? ... : null", so
+ * when it is false the JIT compiler drops the profiling code. The
+ * per-thread state lives in a holder class that is only initialized once
+ * a turn is profiled, so a disabled run loads nothing beyond this class.
+ * TurnProfilerBenchmark measures the cost both ways, and its main method
+ * compares the disabled case with a copy of the turn loop that has no
+ * hooks at all.
+ */
+public class TurnProfiler {
+    
+    /** Whether profiling is on, from the ip1.profile system property. */
+    public static final boolean ENABLED = Boolean.getBoolean("ip1.profile");
+    
+    /** Time one turn in this many, from the ip1.profile.sampleEvery system property. */
+    public static final int SAMPLE_EVERY = Math.max(1, Integer.getInteger("ip1.profile.sampleEvery", 16));
+    
+    private static final int BUCKETS = 64;
+    
+    /**
+     * Every thread's profiler. A separate class so that reading ENABLED
+     * does not create the thread-local or the list when profiling is off.
+     */
+    private static class Threads {
+        static final List<TurnProfiler> ALL = new CopyOnWriteArrayList<>();
+        static final ThreadLocal<TurnProfiler> CURRENT = new ThreadLocal<TurnProfiler>() {
+            @Override
+            protected TurnProfiler initialValue() {
+                TurnProfiler profiler = new TurnProfiler();
+                ALL.add(profiler);
+                return profiler;
+            }
+        };
+    }
+    
+    /**
+     * The timed phases of a turn. RESHUFFLE happens during DRAW_HAND, so
+     * its time is also included in DRAW_HAND.
+     */
+    public enum Phase {
+        PLAY_CRYPTOS,
+        BUY,
+        ADD_TO_DISCARD,
+        CLEANUP,
+        DRAW_HAND,
+        RESHUFFLE
+    }
+    
+    // histograms[phase][b] counts durations in [2^(b-1), 2^b) nanoseconds
+    private long[][] histograms;
+    private long[] totalNanos;
+    private int turns;
+    private boolean sampling;
+    
+    private TurnProfiler() {
+        this.histograms = new long[Phase.values().length][BUCKETS];
+        this.totalNanos = new long[Phase.values().length];
+    }
+    
+    /**
+     * Starts a turn on the current thread.
+     *
+     * @return this thread's profiler if the turn should be timed, or null
+     */
+    public static TurnProfiler startTurn() {
+        TurnProfiler profiler = Threads.CURRENT.get();
+        profiler.sampling = ++profiler.turns % SAMPLE_EVERY == 0;
+        return profiler.sampling ? profiler : null;
+    }
+    
+    /**
+     * Gets the profiler for the turn in progress on the current thread.
+     *
+     * @return this thread's profiler if the current turn is being timed, or null
+     */
+    public static TurnProfiler currentTurn() {
+        TurnProfiler profiler = Threads.CURRENT.get();
+        return profiler.sampling ? profiler : null;
+    }
+    
+    /**
+     * Records the time since start against a phase.
+     *
+     * @param phase the phase that just finished
+     * @param start the System.nanoTime() when the phase began
+     * @return the current System.nanoTime(), for timing the next phase
+     */
+    public long record(Phase phase, long start) {
+        long now = System.nanoTime();
+        long nanos = now - start;
+        histograms[phase.ordinal()][BUCKETS - Long.numberOfLeadingZeros(Math.max(nanos, 0))]++;
+        totalNanos[phase.ordinal()] += nanos;
+        return now;
+    }
+    
+    /**
+     * Records a reshuffle: times it if the current turn is sampled and
+     * emits a JFR event.
+     *
+     * @param profiler the profiler from currentTurn(), or null if not sampled
+     * @param start the System.nanoTime() when the reshuffle began, if sampled
+     * @param cards the number of cards in the new draw pile
+     */
+    static void reshuffled(TurnProfiler profiler, long start, int cards) {
+        if (profiler != null) {
+            profiler.record(Phase.RESHUFFLE, start);
+        }
+        ReshuffleEvent event = new ReshuffleEvent();
+        event.cards = cards;
+        event.commit();
+    }
+    
+    /**
+     * Prints the merged timings of every thread.
+     *
+     * @param out where to print
+     */
+    public static void report(PrintStream out) {
+        out.printf("%-16s %10s %10s %10s %10s%n", "Phase", "Samples", "Mean ns", "p50 ns", "p99 ns");
+        for (Phase phase : Phase.values()) {
+            long[] merged = new long[BUCKETS];
+            long total = 0;
+            for (TurnProfiler profiler : Threads.ALL) {
+                for (int b = 0; b < BUCKETS; b++) {
+                    merged[b] += profiler.histograms[phase.ordinal()][b];
+                }
+                total += profiler.totalNanos[phase.ordinal()];
+            }
+            long samples = 0;
+            for (long count : merged) {
+                samples += count;
+            }
+            if (samples == 0) {
+                out.printf("%-16s %10d%n", phase, 0);
+                continue;
+            }
+            out.printf("%-16s %10d %10d %10s %10s%n", phase, samples, total / samples,
+                       "<" + upperBound(merged, samples, 0.5), "<" + upperBound(merged, samples, 0.99));
+        }
+    }
+    
+    /**
+     * Clears the timings of every thread.
+     */
+    public static void reset() {
+        for (TurnProfiler profiler : Threads.ALL) {
+            for (long[] histogram : profiler.histograms) {
+                Arrays.fill(histogram, 0);
+            }
+            Arrays.fill(profiler.totalNanos, 0);
+        }
+    }
+    
+    /**
+     * Finds the upper bound of the histogram bucket holding a quantile.
+     */
+    private static long upperBound(long[] histogram, long samples, double q) {
+        long target = (long) Math.ceil(q * samples);
+        long cumulative = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            cumulative += histogram[b];
+            if (cumulative >= target) {
+                return b == BUCKETS - 1 ? Long.MAX_VALUE : 1L << b;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+    
+    /**
+     * JFR event emitted when a game begins.
+     */
+    @Name("edu.brandeis.cosi103a.ip1.GameStart")
+    @Label("Game Start")
+    @Category("Automation")
+    static class GameStartEvent extends Event {
+        @Label("Player 1 Starts")
+        boolean player1Starts;
+    }
+    
+    /**
+     * JFR event spanning a whole game, committed when it ends.
+     */
+    @Name("edu.brandeis.cosi103a.ip1.GameEnd")
+    @Label("Game End")
+    @Category("Automation")
+    @Description("A complete game, from the first turn to the end rule")
+    static class GameEndEvent extends Event {
+        @Label("Turns")
+        int turns;
+        
+        @Label("End Reason")
+        String endReason;
+        
+        @Label("Player 1 Points")
+        int player1Points;
+        
+        @Label("Player 2 Points")
+        int player2Points;
+        
+        @Label("Winner")
+        @Description("The winning seat, 1 or 2, as decided by Game.getWinner()")
+        int winner;
+    }
+    
+    /**
+     * JFR event emitted when a player's discard pile becomes their draw pile.
+     */
+    @Name("edu.brandeis.cosi103a.ip1.Reshuffle")
+    @Label("Reshuffle")
+    @Category("Automation")
+    static class ReshuffleEvent extends Event {
+        @Label("Cards")
+        int cards;
+    }
+}
@@ -0,0 +1,45 @@
+package edu.brandeis.cosi103a.ip1;
+
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The unbiased RandomSource used by normal games.
+ * 
+ * Every card in the pile is equally likely to be picked and each player
+ * is equally likely to start, so cards are drawn in a uniformly random order.
+ * Two sources built from the same seed make the same choices.
+ */
+public class UniformRandomSource implements RandomSource {
+    
+    private Random random;
+    
+    /**
+     * Constructs a UniformRandomSource with a fixed seed.
+     *
+     * @param seed the seed for the random number generator
+     */
+    public UniformRandomSource(long seed) {
+        this(new Random(seed));
+    }
+    
+    /**
+     * Constructs a UniformRandomSource around an existing generator.
+     *
+     * @param random the random number generator to draw from
+     */
+    public UniformRandomSource(Random random) {
+        this.random = random;
+    }
+    
+    @Override
+    public int pickCard(List<Card> cards, int bound) {
+        return random.nextInt(bound);
+    }
+    
+    @Override
+    public boolean player1Starts() {
+        return random.nextBoolean();
+    }
+}
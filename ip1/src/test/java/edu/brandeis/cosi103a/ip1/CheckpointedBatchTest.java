@@ -0,0 +1,127 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Unit tests for the CheckpointedBatch class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - A resumed batch gives the same results as an uninterrupted one
+ * - A finished batch resumes as complete
+ * - Checkpoints for another range or with bad data are rejected
+ */
+public class CheckpointedBatchTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    /**
+     * Test that stopping and resuming matches playing the range at once.
+     */
+    @Test
+    public void testResumeMatchesUninterruptedRun() throws IOException {
+        Path file = tempDir.resolve("batch.ckpt");
+        
+        CheckpointedBatch first = new CheckpointedBatch(file, 0, 60);
+        first.run(25);
+        assertEquals(25, first.getNextSeed(), "First run should stop after 25 games");
+        assertFalse(first.isComplete(), "Batch should not be complete yet");
+        
+        CheckpointedBatch resumed = new CheckpointedBatch(file, 0, 60);
+        assertEquals(25, resumed.getNextSeed(), "Resumed batch should start at seed 25");
+        GameStatistics stats = resumed.run();
+        
+        GameStatisticsTest.assertSameCounts(GameStatisticsTest.statsForSeeds(0, 60), stats);
+        assertFalse(Files.exists(tempDir.resolve("batch.ckpt.tmp")),
+                   "Temporary file should be renamed away");
+    }
+    
+    /**
+     * Test that a finished batch resumes without playing any games.
+     */
+    @Test
+    public void testCompletedBatchResumesComplete() throws IOException {
+        Path file = tempDir.resolve("done.ckpt");
+        new CheckpointedBatch(file, 10, 20).run();
+        
+        CheckpointedBatch resumed = new CheckpointedBatch(file, 10, 20);
+        
+        assertTrue(resumed.isComplete(), "Batch should already be complete");
+        assertEquals(10, resumed.getStatistics().getGames(), "Statistics should be restored");
+    }
+    
+    /**
+     * Test that a checkpoint for a different range is rejected.
+     */
+    @Test
+    public void testRangeMismatchIsRejected() throws IOException {
+        Path file = tempDir.resolve("range.ckpt");
+        new CheckpointedBatch(file, 0, 10).run(5);
+        
+        assertThrows(IOException.class, () -> new CheckpointedBatch(file, 0, 20));
+    }
+    
+    /**
+     * Test that a damaged checkpoint is detected by its checksum.
+     */
+    @Test
+    public void testCorruptCheckpointIsRejected() throws IOException {
+        Path file = tempDir.resolve("corrupt.ckpt");
+        new CheckpointedBatch(file, 0, 10).run(5);
+        
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[40] ^= 0x01;
+        Files.write(file, bytes);
+        
+        assertThrows(IOException.class, () -> new CheckpointedBatch(file, 0, 10));
+    }
+    
+    /**
+     * Test that damage anywhere in the file, including fields that would
+     * make the statistics unreadable, is reported as an IOException.
+     */
+    @Test
+    public void testEveryCorruptByteIsRejected() throws IOException {
+        Path file = tempDir.resolve("sweep.ckpt");
+        new CheckpointedBatch(file, 0, 10).run(5);
+        byte[] original = Files.readAllBytes(file);
+        
+        for (int i = 0; i < original.length; i++) {
+            byte[] bytes = original.clone();
+            bytes[i] ^= (byte) 0x80;
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> new CheckpointedBatch(file, 0, 10),
+                         "Flipping byte " + i + " should be detected");
+        }
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> new CheckpointedBatch(file, 0, 10));
+    }
+    
+    /**
+     * Test that a checkpoint whose next seed is outside its range is
+     * rejected even when its checksum is valid.
+     */
+    @Test
+    public void testNextSeedOutOfRangeIsRejected() throws IOException {
+        Path file = tempDir.resolve("next.ckpt");
+        new CheckpointedBatch(file, 0, 10).run(5);
+        byte[] bytes = Files.readAllBytes(file);
+        
+        // The next seed follows the magic, version and seed range
+        ByteBuffer.wrap(bytes).putLong(24, 11);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        ByteBuffer.wrap(bytes).putLong(bytes.length - Long.BYTES, crc.getValue());
+        Files.write(file, bytes);
+        
+        assertThrows(IOException.class, () -> new CheckpointedBatch(file, 0, 10));
+    }
+}
@@ -0,0 +1,30 @@
+package edu.brandeis.cosi103a.ip1;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * A SimulationWorker stand-in that dies partway through its first slice.
+ * 
+ * When started at seed 0 it reports the first 25 seeds and then exits
+ * without sending DONE. Workers started at any other seed behave
+ * normally, so a reassigned slice completes.
+ */
+public class CrashingWorker {
+    
+    public static void main(String[] args) throws IOException {
+        long fromSeed = Long.parseLong(args[3]);
+        if (fromSeed != 0) {
+            SimulationWorker.main(args);
+            return;
+        }
+        
+        Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeInt(Integer.parseInt(args[2]));
+        SimulationWorker.streamResults(out, fromSeed, fromSeed + 25, Integer.parseInt(args[5]));
+        System.exit(1);
+    }
+}
@@ -0,0 +1,124 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DifferentialHarness class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Game matches itself on every seed
+ * - A candidate that plays differently is caught at the right seed and turn
+ * - The lowest diverging seed is reported when several diverge
+ * - A candidate that stops early is caught
+ */
+public class DifferentialHarnessTest {
+    
+    /**
+     * Test that the reference engine agrees with itself.
+     */
+    @Test
+    public void testReferenceMatchesItself() {
+        DifferentialHarness harness = new DifferentialHarness(Game::new);
+        
+        assertNull(harness.check(0, 3000), "Game should match itself on every seed");
+    }
+    
+    /**
+     * Test that a game with a different buy strategy is reported at the
+     * first turn where it bought something else.
+     */
+    @Test
+    public void testDifferentStrategyIsCaught() {
+        BuyStrategy buyNothing = (supply, player, budget) -> null;
+        DifferentialHarness harness = new DifferentialHarness(seed -> seed == 1500 || seed == 2900
+                ? new Game(EndPolicy.standard(), new UniformRandomSource(seed), buyNothing, buyNothing)
+                : new Game(seed));
+        
+        DifferentialHarness.Divergence divergence = harness.check(0, 3000);
+        
+        assertNotNull(divergence);
+        assertEquals(1500, divergence.getSeed(), "The lowest diverging seed should be reported");
+        assertEquals(1, divergence.getTurn(), "The first turn always buys something");
+        assertFalse(PackedState.equals(divergence.getExpectedState(), 0,
+                                       divergence.getActualState(), 0));
+        String report = divergence.toString();
+        assertTrue(report.contains("expected:") && report.contains("actual:"), report);
+        assertTrue(report.contains("differs: supply"), report);
+    }
+    
+    /**
+     * Test that a candidate that ends the game too soon is caught.
+     */
+    @Test
+    public void testEarlyEndIsCaught() {
+        EndPolicy short10 = new EndPolicy(10, 0, 0, 0);
+        DifferentialHarness harness = new DifferentialHarness(
+                seed -> new Game(short10, new UniformRandomSource(seed)));
+        
+        DifferentialHarness.Divergence divergence = harness.check(40, 50);
+        
+        assertNotNull(divergence);
+        assertEquals(40, divergence.getSeed());
+        assertEquals(11, divergence.getTurn());
+        assertEquals("candidate ended the game early", divergence.getReason());
+    }
+    
+    /**
+     * Test that an exception from the candidate is reported as a divergence
+     * with its seed, turn and the last position both engines agreed on.
+     */
+    @Test
+    public void testThrowingCandidateIsCaught() {
+        DifferentialHarness harness = new DifferentialHarness(seed -> new GameEngine() {
+            private Game game = new Game(seed);
+            
+            @Override
+            public boolean step() {
+                if (seed == 20 && game.getTurnsPlayed() == 3) {
+                    throw new IllegalArgumentException("count does not fit");
+                }
+                return game.step();
+            }
+            
+            @Override
+            public void encodeState(long[] words, int base) {
+                game.encodeState(words, base);
+            }
+        });
+        
+        DifferentialHarness.Divergence divergence = harness.check(0, 30);
+        
+        assertNotNull(divergence);
+        assertEquals(20, divergence.getSeed());
+        assertEquals(3, divergence.getTurn());
+        assertTrue(divergence.getError() instanceof IllegalArgumentException);
+        assertTrue(divergence.getReason().startsWith("candidate threw"), divergence.getReason());
+        
+        Game game = new Game(20);
+        for (int i = 0; i < 3; i++) {
+            game.step();
+        }
+        long[] expected = new long[PackedState.WORDS];
+        game.encodeState(expected, 0);
+        assertArrayEquals(expected, divergence.getAgreedState());
+        assertTrue(divergence.toString().contains("agreed:"), divergence.toString());
+    }
+    
+    /**
+     * Test that a candidate that cannot even be created is reported.
+     */
+    @Test
+    public void testFailingConstructionIsCaught() {
+        DifferentialHarness harness = new DifferentialHarness(seed -> {
+            throw new IllegalStateException("no engine");
+        });
+        
+        DifferentialHarness.Divergence divergence = harness.check(5, 10);
+        
+        assertEquals(5, divergence.getSeed());
+        assertEquals(0, divergence.getTurn());
+        assertNull(divergence.getAgreedState());
+        assertNull(divergence.getExpectedState());
+    }
+}
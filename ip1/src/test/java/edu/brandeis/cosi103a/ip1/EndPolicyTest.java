@@ -0,0 +1,87 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the EndPolicy class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Each rule fires only when its limit is reached
+ * - Disabled rules (0) never fire
+ * - Rules are reported in priority order
+ */
+public class EndPolicyTest {
+    
+    private Supply supply;
+    
+    /**
+     * Set up a fresh Supply before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        supply = new Supply();
+    }
+    
+    /**
+     * Test that the standard policy only ends on Frameworks or the turn limit.
+     */
+    @Test
+    public void testStandardPolicy() {
+        EndPolicy policy = EndPolicy.standard();
+        
+        assertNull(policy.check(supply, 100, 999, 999),
+                  "Standard policy should ignore score lead and stalls");
+        assertEquals(EndReason.TURN_LIMIT, policy.check(supply, 0, 1000, 0),
+                    "Standard policy should stop at 1000 turns");
+        
+        for (int i = 0; i < 8; i++) {
+            supply.buyCard("Framework");
+        }
+        assertEquals(EndReason.FRAMEWORKS_EXHAUSTED, policy.check(supply, 0, 1000, 0),
+                    "Frameworks running out should take priority over the turn limit");
+    }
+    
+    /**
+     * Test that the empty pile rule fires once enough piles are empty.
+     */
+    @Test
+    public void testEmptyPiles() {
+        EndPolicy policy = new EndPolicy(1000, 2, 0, 0);
+        
+        for (int i = 0; i < 8; i++) {
+            supply.buyCard("Module");
+        }
+        assertNull(policy.check(supply, 0, 10, 0), "One empty pile should not end the game");
+        
+        for (int i = 0; i < 14; i++) {
+            supply.buyCard("Method");
+        }
+        assertEquals(EndReason.PILES_EXHAUSTED, policy.check(supply, 0, 10, 0),
+                    "Two empty piles should end the game");
+    }
+    
+    /**
+     * Test the score lead and stall rules.
+     */
+    @Test
+    public void testScoreLeadAndStall() {
+        EndPolicy policy = new EndPolicy(1000, 0, 10, 5);
+        
+        assertNull(policy.check(supply, 9, 10, 4), "Below both limits should continue");
+        assertEquals(EndReason.SCORE_LEAD, policy.check(supply, 10, 10, 4),
+                    "A 10 point lead should end the game");
+        assertEquals(EndReason.STALL, policy.check(supply, 0, 10, 5),
+                    "Five turns without a purchase should end the game");
+    }
+    
+    /**
+     * Test that invalid limits are rejected.
+     */
+    @Test
+    public void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new EndPolicy(0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new EndPolicy(10, -1, 0, 0));
+    }
+}
@@ -0,0 +1,113 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for the GameCli class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Each output format reports the same games as playing them directly
+ * - A weights file is used as the strategy
+ * - Bad options are rejected
+ */
+public class GameCliTest {
+    
+    @TempDir
+    Path dir;
+    
+    /**
+     * Test that text output describes the seeded game.
+     */
+    @Test
+    public void testTextOutput() throws IOException {
+        Game game = new Game(12);
+        game.playGame();
+        
+        String output = run("--seed", "12");
+        
+        String expected = "Seed 12: Player " + (game.getWinner() == game.getPlayer1() ? 1 : 2)
+                + " wins " + game.getPlayer1().getTotalAutomationPoints()
+                + "-" + game.getPlayer2().getTotalAutomationPoints()
+                + " after " + game.getTurnsPlayed() + " turns (" + game.getEndReason() + ")";
+        assertEquals(expected, output.trim());
+    }
+    
+    /**
+     * Test that CSV output has a header and one row per seed.
+     */
+    @Test
+    public void testCsvOutput() throws IOException {
+        String[] lines = run("--seed", "4", "--games", "3", "--format", "csv").split("\\R");
+        
+        assertEquals(4, lines.length);
+        assertEquals("seed,winner,player1Points,player2Points,turns,endReason", lines[0]);
+        for (int i = 1; i <= 3; i++) {
+            Game game = new Game(3 + i);
+            game.playGame();
+            assertTrue(lines[i].startsWith((3 + i) + ","), lines[i]);
+            assertTrue(lines[i].endsWith("," + game.getTurnsPlayed() + "," + game.getEndReason()), lines[i]);
+        }
+    }
+    
+    /**
+     * Test that JSON output is one object per game.
+     */
+    @Test
+    public void testJsonOutput() throws IOException {
+        Game game = new Game(7);
+        game.playGame();
+        
+        String output = run("--seed", "7", "--format", "json").trim();
+        
+        assertTrue(output.startsWith("{\"seed\":7,\"winner\":"), output);
+        assertTrue(output.contains("\"player1Points\":" + game.getPlayer1().getTotalAutomationPoints()), output);
+        assertTrue(output.endsWith("\"endReason\":\"" + game.getEndReason() + "\"}"), output);
+    }
+    
+    /**
+     * Test that a weights file plays the same games as the parsed strategy.
+     */
+    @Test
+    public void testStrategyFile() throws IOException {
+        LinearBuyStrategy strategy = LinearBuyStrategy.costOrdered();
+        Path weights = dir.resolve("weights.txt");
+        Files.writeString(weights, strategy + "\n");
+        Game game = new Game(EndPolicy.standard(), new UniformRandomSource(3), strategy, strategy);
+        game.playGame();
+        
+        String output = run("--seed", "3", "--strategy", weights.toString(), "--format", "csv");
+        
+        assertTrue(output.contains("\n3," + (game.getWinner() == game.getPlayer1() ? 1 : 2) + ","
+                                   + game.getPlayer1().getTotalAutomationPoints()), output);
+    }
+    
+    /**
+     * Test that unknown or malformed options are rejected.
+     */
+    @Test
+    public void testBadOptions() {
+        assertThrows(IllegalArgumentException.class, () -> new GameCli(new String[] {"--colour", "red"}));
+        assertThrows(IllegalArgumentException.class, () -> new GameCli(new String[] {"--seed"}));
+        assertThrows(IllegalArgumentException.class, () -> new GameCli(new String[] {"--games", "0"}));
+        assertThrows(IllegalArgumentException.class, () -> new GameCli(new String[] {"--format", "xml"}));
+        assertThrows(IOException.class,
+                     () -> new GameCli(new String[] {"--strategy", dir.resolve("missing").toString()}));
+    }
+    
+    /**
+     * Runs the CLI and returns what it printed.
+     */
+    private static String run(String... args) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new GameCli(args).run(new PrintStream(bytes, true));
+        return bytes.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.stream.LongStream;
+
+/**
+ * Unit tests for the GameStatistics class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Recording games counts wins, purchases, points and end reasons
+ * - Starting player wins are kept for each seat
+ * - Merging matches recording everything in one place
+ * - Statistics survive a write/read round trip
+ */
+public class GameStatisticsTest {
+    
+    /**
+     * Helper method to record a range of seeded games.
+     * 
+     * @param fromSeed the first seed
+     * @param toSeed the end seed (exclusive)
+     * @return the statistics of those games
+     */
+    static GameStatistics statsForSeeds(long fromSeed, long toSeed) {
+        GameStatistics stats = new GameStatistics();
+        for (long seed = fromSeed; seed < toSeed; seed++) {
+            Game game = new Game(seed);
+            game.playGame();
+            stats.record(game);
+        }
+        return stats;
+    }
+    
+    /**
+     * Helper method to assert two sets of statistics hold the same counts.
+     * Turn quantiles are approximate, so they only need to be close.
+     */
+    static void assertSameCounts(GameStatistics expected, GameStatistics actual) {
+        assertEquals(expected.getGames(), actual.getGames(), "Game counts should match");
+        for (int seat = 1; seat <= 2; seat++) {
+            assertEquals(expected.getWins(seat), actual.getWins(seat), "Wins should match");
+            for (int card = 0; card < Supply.CARD_TYPES; card++) {
+                assertEquals(expected.getPurchaseCount(seat, card), actual.getPurchaseCount(seat, card),
+                            "Purchases should match for " + Supply.getCardName(card));
+            }
+            for (int points = 0; points <= GameStatistics.MAX_POINTS; points++) {
+                assertEquals(expected.getPointCount(seat, points), actual.getPointCount(seat, points),
+                            "Point histogram should match at " + points);
+            }
+        }
+        assertEquals(expected.getStartingPlayerWinRate(), actual.getStartingPlayerWinRate(),
+                    "Starting player win rate should match");
+        for (int seat = 1; seat <= 2; seat++) {
+            assertEquals(expected.getStarts(seat), actual.getStarts(seat), "Starts should match");
+            assertEquals(expected.getStartingWins(seat), actual.getStartingWins(seat),
+                        "Starting wins should match");
+        }
+        for (EndReason reason : EndReason.values()) {
+            assertEquals(expected.getEndReasonCount(reason), actual.getEndReasonCount(reason),
+                        "End reason counts should match for " + reason);
+        }
+        assertEquals(expected.getTurnsQuantile(0.5), actual.getTurnsQuantile(0.5),
+                    0.05 * expected.getTurnsQuantile(0.5) + 1, "Median turns should be close");
+    }
+    
+    /**
+     * Test that every recorded game is counted once.
+     */
+    @Test
+    public void testRecordCountsGames() {
+        GameStatistics stats = statsForSeeds(0, 20);
+        
+        assertEquals(20, stats.getGames(), "Statistics should count 20 games");
+        assertEquals(20, stats.getWins(1) + stats.getWins(2), "Every game should have one winner");
+        assertEquals(1.0, stats.getWinRate(1) + stats.getWinRate(2), 1e-12,
+                    "Win rates should add up to 1");
+        
+        long histogramTotal = 0;
+        for (int points = 0; points <= GameStatistics.MAX_POINTS; points++) {
+            histogramTotal += stats.getPointCount(1, points);
+        }
+        assertEquals(20, histogramTotal, "Histogram should hold every game");
+        
+        long frameworks = stats.getPurchaseCount(1, Supply.cardIndex("Framework"))
+                        + stats.getPurchaseCount(2, Supply.cardIndex("Framework"));
+        long endedByFrameworks = stats.getEndReasonCount(EndReason.FRAMEWORKS_EXHAUSTED);
+        assertTrue(frameworks >= 8 * endedByFrameworks,
+                  "Games ended by Frameworks should have bought all 8");
+    }
+    
+    /**
+     * Test that starts and wins are split by the seat that moved first.
+     */
+    @Test
+    public void testStartingSeatCounts() {
+        long[] starts = new long[2];
+        long[] wins = new long[2];
+        for (long seed = 0; seed < 40; seed++) {
+            Game game = new Game(seed);
+            game.playGame();
+            int seat = game.getStartingPlayer() == game.getPlayer1() ? 0 : 1;
+            starts[seat]++;
+            if (game.getWinner() == game.getStartingPlayer()) {
+                wins[seat]++;
+            }
+        }
+        
+        GameStatistics stats = statsForSeeds(0, 40);
+        
+        for (int seat = 1; seat <= 2; seat++) {
+            assertEquals(starts[seat - 1], stats.getStarts(seat), "Starts should match for seat " + seat);
+            assertEquals(wins[seat - 1], stats.getStartingWins(seat), "Wins should match for seat " + seat);
+            assertEquals((double) wins[seat - 1] / starts[seat - 1], stats.getStartingWinRate(seat), 1e-12);
+        }
+        assertEquals((double) (wins[0] + wins[1]) / 40, stats.getStartingPlayerWinRate(), 1e-12,
+                    "Overall rate should combine both seats");
+        assertTrue(Double.isNaN(new GameStatistics().getStartingWinRate(1)),
+                  "A seat that never started should have no rate");
+    }
+    
+    /**
+     * Test that merging two halves equals recording the whole range.
+     */
+    @Test
+    public void testMergeMatchesSingleRecord() {
+        GameStatistics merged = statsForSeeds(0, 10);
+        merged.merge(statsForSeeds(10, 25));
+        
+        assertSameCounts(statsForSeeds(0, 25), merged);
+    }
+    
+    /**
+     * Test that the parallel stream collector matches a sequential loop.
+     */
+    @Test
+    public void testCollectorMatchesLoop() {
+        GameStatistics collected = LongStream.range(0, 40).parallel()
+                .mapToObj(seed -> {
+                    Game game = new Game(seed);
+                    game.playGame();
+                    return game;
+                })
+                .collect(GameStatistics.collector());
+        
+        assertSameCounts(statsForSeeds(0, 40), collected);
+    }
+    
+    /**
+     * Test that writing and reading statistics keeps every count.
+     */
+    @Test
+    public void testWriteReadRoundTrip() throws IOException {
+        GameStatistics stats = statsForSeeds(0, 15);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        stats.writeTo(new DataOutputStream(bytes));
+        
+        GameStatistics read = GameStatistics.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        assertSameCounts(stats, read);
+        assertEquals(stats.getTurnsQuantile(0.9), read.getTurnsQuantile(0.9),
+                    "Quantiles should survive the round trip exactly");
+    }
+}
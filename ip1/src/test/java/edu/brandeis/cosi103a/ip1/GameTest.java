@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Game runs to completion without exceptions
  * - Game terminates when Framework cards are exhausted
  * - Winner is determined correctly
+ * - Each end rule stops a real game and is reported as the end reason
  */
 public class GameTest {
     
@@ -70,5 +71,163 @@ public class GameTest {
         // Verify the game completed (if winner is returned, game must have ended)
         assertTrue(true, "Game should complete without exceptions");
     }
+    
+    /**
+     * Test that a finished game reports the rule that ended it.
+     * 
+     * With the standard policy, the game ends either because Frameworks
+     * ran out or because the turn limit was reached.
+     */
+    @Test
+    public void testGameReportsEndReason() {
+        Game game = new Game();
+        assertNull(game.getEndReason(), "Game should not have an end reason before playing");
+        
+        game.playGame();
+        
+        EndReason reason = game.getEndReason();
+        assertTrue(reason == EndReason.FRAMEWORKS_EXHAUSTED || reason == EndReason.TURN_LIMIT,
+                  "Standard game should end on Frameworks or the turn limit");
+        assertTrue(game.getTurnsPlayed() <= EndPolicy.DEFAULT_MAX_TURNS,
+                  "Game should not exceed the turn limit");
+    }
+    
+    /**
+     * Test that a short turn limit cuts the game off.
+     */
+    @Test
+    public void testTurnLimitEndsGame() {
+        Game game = new Game(new EndPolicy(3, 0, 0, 0));
+        game.playGame();
+        
+        assertEquals(EndReason.TURN_LIMIT, game.getEndReason(), "Game should stop at the turn limit");
+        assertEquals(3, game.getTurnsPlayed(), "Game should play exactly 3 turns");
+    }
+    
+    /**
+     * Test that the stall rule fires once no one can buy anything.
+     * 
+     * Every turn buys a card while Bitcoins remain, so a one-turn stall
+     * limit can only fire after some pile has run out.
+     */
+    @Test
+    public void testStallRule() {
+        Game game = new Game(new EndPolicy(100000, 0, 0, 1));
+        game.playGame();
+        
+        assertEquals(EndReason.STALL, game.getEndReason(), "Game should end on the stall rule");
+    }
+    
+    /**
+     * Test that the score lead rule ends a game once one player owns
+     * enough more automation points.
+     */
+    @Test
+    public void testScoreLeadRule() {
+        Game game = new Game(new EndPolicy(1000, 0, 5, 0), new UniformRandomSource(1));
+        game.playGame();
+        
+        int lead = game.getPlayer1().getOwnedAutomationPoints() - game.getPlayer2().getOwnedAutomationPoints();
+        assertEquals(EndReason.SCORE_LEAD, game.getEndReason(), "Game should end on the score lead");
+        assertTrue(Math.abs(lead) >= 5, "A player should lead by at least 5 owned points");
+        assertTrue(game.getTurnsPlayed() < 1000, "Game should end before the turn limit");
+    }
+    
+    /**
+     * Test that a game ended by the score lead is won by the leader.
+     * 
+     * Seed 3474 ends with player 2 owning 5 more points while both final
+     * hands are worth the same, so hand scoring alone would pick player 1.
+     */
+    @Test
+    public void testScoreLeadWinnerIsLeader() {
+        Game game = new Game(new EndPolicy(1000, 0, 5, 0), new UniformRandomSource(3474));
+        game.playGame();
+        
+        assertEquals(EndReason.SCORE_LEAD, game.getEndReason());
+        assertEquals(game.getPlayer1().getTotalAutomationPoints(),
+                    game.getPlayer2().getTotalAutomationPoints(), "Final hands should tie");
+        assertSame(game.getPlayer2(), game.getWinner(), "The player who led should win");
+    }
+    
+    /**
+     * Test that the empty piles rule ends a game once a supply pile runs out.
+     */
+    @Test
+    public void testEmptyPilesRule() {
+        Game game = new Game(new EndPolicy(100000, 1, 0, 0), new UniformRandomSource(0));
+        game.playGame();
+        
+        assertEquals(EndReason.PILES_EXHAUSTED, game.getEndReason(), "Game should end on an empty pile");
+        assertEquals(1, game.getSupply().getEmptyPileCount());
+        assertFalse(game.getSupply().isGameOver(), "Frameworks should remain");
+    }
+    
+    /**
+     * Test that two games built from the same seed play identically.
+     */
+    @Test
+    public void testSeededGamesAreReproducible() {
+        Game first = new Game(EndPolicy.standard(), new UniformRandomSource(123));
+        Game second = new Game(EndPolicy.standard(), new UniformRandomSource(123));
+        first.playGame();
+        second.playGame();
+        
+        assertEquals(first.getTurnsPlayed(), second.getTurnsPlayed(),
+                    "Seeded games should last the same number of turns");
+        assertEquals(first.getPlayer1().getOwnedAutomationPoints(),
+                    second.getPlayer1().getOwnedAutomationPoints(),
+                    "Seeded games should end with the same decks");
+        assertEquals(first.getPlayer2().getHand().size(), second.getPlayer2().getHand().size(),
+                    "Seeded games should end with the same hands");
+    }
+    
+    /**
+     * Test that purchase counts match the cards taken from the supply.
+     */
+    @Test
+    public void testPurchaseCounts() {
+        Game game = new Game(99);
+        game.playGame();
+        Supply fullSupply = new Supply();
+        
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            String name = Supply.getCardName(i);
+            int taken = fullSupply.getCardCount(name) - game.getSupply().getCardCount(name);
+            assertEquals(taken, game.getPurchaseCount(1, i) + game.getPurchaseCount(2, i),
+                        "Purchases should match the " + name + " cards taken from the supply");
+        }
+    }
+    
+    /**
+     * Test that a strategy choosing an unaffordable card is rejected.
+     */
+    @Test
+    public void testUnaffordableChoiceIsRejected() {
+        BuyStrategy alwaysFramework = (supply, player, budget) -> "Framework";
+        Game game = new Game(EndPolicy.standard(), new UniformRandomSource(1),
+                             alwaysFramework, alwaysFramework);
+        
+        assertThrows(IllegalStateException.class, game::playGame,
+                    "Starter hands cannot afford a Framework");
+    }
+    
+    /**
+     * Test that stepping a game turn by turn ends the same way as playGame().
+     */
+    @Test
+    public void testStepMatchesPlayGame() {
+        Game stepped = new Game(17);
+        int steps = 0;
+        while (stepped.step()) {
+            steps++;
+        }
+        Game played = new Game(17);
+        played.playGame();
+        
+        assertEquals(played.getTurnsPlayed(), steps, "Each step should play one turn");
+        assertEquals(played.getTurnsPlayed(), stepped.getTurnsPlayed());
+        assertEquals(played.getEndReason(), stepped.getEndReason());
+        assertFalse(stepped.step(), "A finished game should not step");
+    }
 }
-
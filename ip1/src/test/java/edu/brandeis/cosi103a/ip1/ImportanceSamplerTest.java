@@ -0,0 +1,135 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the ImportanceSampler class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - An unbiased sampler keeps a likelihood ratio of 1
+ * - Tilted draws favor expensive cards, so they reach a player's hand sooner
+ * - Likelihood ratios average to 1, so weighted estimates are unbiased
+ */
+public class ImportanceSamplerTest {
+    
+    /**
+     * Helper method to create a pile with one card of each cost.
+     * 
+     * @return a pile of Bitcoin (0), Method (2), Module (5) and Framework (8)
+     */
+    private List<Card> createMixedPile() {
+        List<Card> pile = new ArrayList<>();
+        pile.add(new Card("Bitcoin", 0, 1, true));
+        pile.add(new Card("Method", 2, 1, false));
+        pile.add(new Card("Module", 5, 3, false));
+        pile.add(new Card("Framework", 8, 6, false));
+        return pile;
+    }
+    
+    /**
+     * Test that a sampler with no bias never changes the likelihood ratio.
+     */
+    @Test
+    public void testUnbiasedSamplerHasUnitWeight() {
+        ImportanceSampler sampler = new ImportanceSampler(new Random(1), 0, 0, 0.5);
+        Game game = new Game(EndPolicy.standard(), sampler);
+        game.playGame();
+        
+        assertEquals(1.0, sampler.getLikelihoodRatio(), 1e-12,
+                    "Unbiased choices should keep a likelihood ratio of 1");
+    }
+    
+    /**
+     * Test that a positive tilt picks the most expensive card more often.
+     */
+    @Test
+    public void testPositiveTiltFavorsExpensiveCards() {
+        ImportanceSampler sampler = new ImportanceSampler(new Random(2), 0, 1.0, 0.5);
+        RandomSource seat = sampler.forSeat(2);
+        List<Card> pile = createMixedPile();
+        
+        int frameworkPicks = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (seat.pickCard(pile, pile.size()) == 3) {
+                frameworkPicks++;
+            }
+        }
+        
+        assertTrue(frameworkPicks > 900,
+                  "Framework should be picked almost every time, was " + frameworkPicks);
+    }
+    
+    /**
+     * Test that a positive tilt puts expensive cards into a player's hand
+     * sooner and a negative tilt holds them back.
+     * 
+     * The starter deck has 3 Methods (cost 2) among 10 cards, so an
+     * unbiased first hand holds 1.5 on average.
+     */
+    @Test
+    public void testTiltDirectionInOpeningHand() {
+        Random random = new Random(4);
+        int positiveMethods = 0;
+        int negativeMethods = 0;
+        for (int i = 0; i < 200; i++) {
+            ImportanceSampler sampler = new ImportanceSampler(random, 1.0, -1.0, 0.5);
+            Game game = new Game(EndPolicy.standard(), sampler);
+            positiveMethods += countMethods(game.getPlayer1().getHand());
+            negativeMethods += countMethods(game.getPlayer2().getHand());
+        }
+        
+        assertTrue(positiveMethods > 2.5 * 200,
+                  "Positive tilt should draw Methods early, averaged " + positiveMethods / 200.0);
+        assertTrue(negativeMethods < 0.5 * 200,
+                  "Negative tilt should draw Methods late, averaged " + negativeMethods / 200.0);
+    }
+    
+    /**
+     * Helper method to count the Method cards in a hand.
+     */
+    private static int countMethods(List<Card> hand) {
+        int methods = 0;
+        for (Card card : hand) {
+            if (card.getName().equals("Method")) {
+                methods++;
+            }
+        }
+        return methods;
+    }
+    
+    /**
+     * Test that likelihood ratios average to 1 under the sampler.
+     * 
+     * This is what makes weighted estimates unbiased.
+     */
+    @Test
+    public void testLikelihoodRatiosAverageToOne() {
+        Random random = new Random(3);
+        List<Card> pile = createMixedPile();
+        int samples = 20000;
+        double sum = 0;
+        
+        for (int i = 0; i < samples; i++) {
+            ImportanceSampler sampler = new ImportanceSampler(random, 0, 0.3, 0.7);
+            sampler.player1Starts();
+            sampler.forSeat(2).pickCard(pile, pile.size());
+            sum += sampler.getLikelihoodRatio();
+        }
+        
+        assertEquals(1.0, sum / samples, 0.03, "Mean likelihood ratio should be 1");
+    }
+    
+    /**
+     * Test that an invalid starting probability is rejected.
+     */
+    @Test
+    public void testInvalidStartProbability() {
+        assertThrows(IllegalArgumentException.class,
+                    () -> new ImportanceSampler(new Random(), 0, 0, 1.0));
+    }
+}
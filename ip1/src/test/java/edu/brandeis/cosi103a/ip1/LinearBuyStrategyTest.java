@@ -0,0 +1,76 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LinearBuyStrategy class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Cost-ordered weights buy exactly like GreedyBuyStrategy
+ * - Only affordable, available cards are chosen
+ * - Weights survive a toString/parse round trip
+ */
+public class LinearBuyStrategyTest {
+    
+    /**
+     * Test that cost-ordered weights play the same games as the greedy strategy.
+     */
+    @Test
+    public void testCostOrderedMatchesGreedy() {
+        BuyStrategy linear = LinearBuyStrategy.costOrdered();
+        for (long seed = 0; seed < 20; seed++) {
+            Game greedyGame = new Game(seed);
+            Game linearGame = new Game(EndPolicy.standard(), new UniformRandomSource(seed), linear, linear);
+            greedyGame.playGame();
+            linearGame.playGame();
+            
+            assertEquals(greedyGame.getTurnsPlayed(), linearGame.getTurnsPlayed(),
+                        "Seed " + seed + " should last the same number of turns");
+            for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                assertEquals(greedyGame.getPurchaseCount(1, i), linearGame.getPurchaseCount(1, i),
+                            "Seed " + seed + " should buy the same cards");
+            }
+        }
+    }
+    
+    /**
+     * Test that the strategy never picks a card the player cannot afford.
+     */
+    @Test
+    public void testChoosesOnlyAffordableCards() {
+        double[] weights = new double[LinearBuyStrategy.WEIGHT_COUNT];
+        weights[Supply.cardIndex("Framework") * LinearBuyStrategy.FEATURES_PER_CARD] = 100;
+        weights[Supply.cardIndex("Method") * LinearBuyStrategy.FEATURES_PER_CARD] = 50;
+        LinearBuyStrategy strategy = new LinearBuyStrategy(weights);
+        Supply supply = new Supply();
+        Player player = new Player(new java.util.ArrayList<>());
+        
+        assertEquals("Framework", strategy.chooseCard(supply, player, 8),
+                    "Framework should win when affordable");
+        assertEquals("Method", strategy.chooseCard(supply, player, 4),
+                    "Method should win when Framework is too expensive");
+        
+        for (int i = 0; i < 14; i++) {
+            supply.buyCard("Method");
+        }
+        assertNotEquals("Method", strategy.chooseCard(supply, player, 4),
+                       "Method should not be chosen once it runs out");
+    }
+    
+    /**
+     * Test that weights can be written and parsed back.
+     */
+    @Test
+    public void testParseRoundTrip() {
+        double[] weights = new double[LinearBuyStrategy.WEIGHT_COUNT];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = i * 0.25 - 3;
+        }
+        LinearBuyStrategy strategy = new LinearBuyStrategy(weights);
+        
+        assertEquals(strategy, LinearBuyStrategy.parse(strategy.toString()),
+                    "Parsed weights should match");
+        assertThrows(IllegalArgumentException.class, () -> LinearBuyStrategy.parse("1,2,3"));
+    }
+}
@@ -0,0 +1,204 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+/**
+ * Unit tests for the OutcomeStore class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Appended records read back with every field intact
+ * - A second mapping of the file sees the records without reopening
+ * - Concurrent appends each get their own record
+ * - The var handles take the coordinates the store passes them
+ * - A full store and a foreign file are rejected
+ * - A record abandoned by a dead writer stops scans until skipped
+ * - A corrupt end reason is reported rather than crashing the lookup
+ */
+public class OutcomeStoreTest {
+    
+    @TempDir
+    Path dir;
+    
+    /**
+     * Test that a record holds the outcome of the game it came from.
+     */
+    @Test
+    public void testAppendAndRead() throws IOException {
+        Game game = new Game(21);
+        game.playGame();
+        
+        try (OutcomeStore store = OutcomeStore.create(dir.resolve("outcomes"), 4)) {
+            assertFalse(store.isCommitted(0), "A new store should have no records");
+            long index = store.append(21, game);
+            
+            assertEquals(0, index);
+            assertEquals(1, store.size());
+            assertTrue(store.isCommitted(0));
+            assertEquals(21, store.getSeed(0));
+            assertEquals(game.getTurnsPlayed(), store.getTurns(0));
+            assertEquals(game.getPlayer1().getTotalAutomationPoints(), store.getPoints(0, 1));
+            assertEquals(game.getPlayer2().getTotalAutomationPoints(), store.getPoints(0, 2));
+            assertEquals(game.getWinner() == game.getPlayer1() ? 1 : 2, store.getWinner(0));
+            assertEquals(game.getEndReason(), store.getEndReason(0));
+            for (int seat = 1; seat <= 2; seat++) {
+                for (int i = 0; i < Supply.CARD_TYPES; i++) {
+                    assertEquals(game.getPurchaseCount(seat, i), store.getPurchaseCount(0, seat, i));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test that a reader mapping the same file sees appends as they happen
+     * and that scan() resumes where it stopped.
+     */
+    @Test
+    public void testReaderSeesAppends() throws IOException {
+        Path file = dir.resolve("outcomes");
+        try (OutcomeStore writer = OutcomeStore.create(file, 10);
+             OutcomeStore reader = OutcomeStore.open(file)) {
+            List<Long> seeds = new ArrayList<>();
+            assertEquals(0, reader.scan(0, i -> seeds.add(reader.getSeed(i))));
+            
+            for (long seed = 100; seed < 103; seed++) {
+                Game game = new Game(seed);
+                game.playGame();
+                writer.append(seed, game);
+            }
+            long next = reader.scan(0, i -> seeds.add(reader.getSeed(i)));
+            
+            assertEquals(3, next);
+            assertEquals(List.of(100L, 101L, 102L), seeds);
+            assertEquals(10, reader.getCapacity());
+        }
+    }
+    
+    /**
+     * Test that threads appending at once never share a record.
+     */
+    @Test
+    public void testConcurrentAppends() throws IOException {
+        try (OutcomeStore store = OutcomeStore.create(dir.resolve("outcomes"), 200)) {
+            Set<Long> indexes = ConcurrentHashMap.newKeySet();
+            LongStream.range(0, 200).parallel().forEach(seed -> {
+                Game game = new Game(seed);
+                game.playGame();
+                indexes.add(store.append(seed, game));
+            });
+            
+            Set<Long> seeds = new HashSet<>();
+            assertEquals(200, store.scan(0, i -> seeds.add(store.getSeed(i))));
+            assertEquals(200, seeds.size(), "Every seed should be stored once");
+            assertEquals(200, indexes.size(), "Every append should get its own index");
+            assertEquals(200, store.size());
+        }
+    }
+    
+    /**
+     * Test that the layout var handles take a segment and a byte offset,
+     * the coordinates append(), size() and isCommitted() pass them. Java 21
+     * previews of the API took the segment alone.
+     */
+    @Test
+    public void testVarHandlesTakeSegmentAndOffset() {
+        List<Class<?>> coordinates = List.of(MemorySegment.class, long.class);
+        assertEquals(coordinates, ValueLayout.JAVA_LONG.varHandle().coordinateTypes());
+        assertEquals(coordinates, ValueLayout.JAVA_INT.varHandle().coordinateTypes());
+    }
+    
+    /**
+     * Test that appending to a full store fails.
+     */
+    @Test
+    public void testFullStoreRejectsAppend() throws IOException {
+        Game game = new Game(1);
+        game.playGame();
+        try (OutcomeStore store = OutcomeStore.create(dir.resolve("outcomes"), 1)) {
+            store.append(1, game);
+            assertThrows(IllegalStateException.class, () -> store.append(1, game));
+            assertEquals(1, store.size());
+        }
+    }
+    
+    /**
+     * Test that opening a file that is not a store fails.
+     */
+    @Test
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("other");
+        Files.write(file, new byte[100]);
+        
+        assertThrows(IOException.class, () -> OutcomeStore.open(file));
+        assertThrows(IOException.class, () -> OutcomeStore.create(file, 5),
+                     "create() should not overwrite an existing file");
+    }
+    
+    /**
+     * Test that a reserved record which is never committed stops scan()
+     * there, and that scanning from the next index steps over it.
+     */
+    @Test
+    public void testAbandonedRecordStopsScan() throws IOException {
+        Path file = dir.resolve("outcomes");
+        Game game = new Game(5);
+        game.playGame();
+        
+        try (OutcomeStore store = OutcomeStore.create(file, 4)) {
+            // A writer that reserved record 0 and died before committing it
+            writeAt(file, 16, ByteBuffer.allocate(8).order(ByteOrder.nativeOrder()).putLong(0, 1));
+            store.append(5, game);
+            List<Long> visited = new ArrayList<>();
+            
+            assertEquals(2, store.size());
+            assertEquals(0, store.scan(0, visited::add));
+            assertEquals(0, store.scan(0, visited::add), "The abandoned record should stop every scan");
+            assertEquals(2, store.scan(1, visited::add));
+            assertEquals(List.of(1L), visited);
+        }
+    }
+    
+    /**
+     * Test that an end reason byte outside EndReason is reported clearly.
+     */
+    @Test
+    public void testCorruptEndReasonIsRejected() throws IOException {
+        Path file = dir.resolve("outcomes");
+        Game game = new Game(5);
+        game.playGame();
+        
+        try (OutcomeStore store = OutcomeStore.create(file, 4)) {
+            store.append(5, game);
+            writeAt(file, 64 + 17, ByteBuffer.wrap(new byte[] {(byte) 0xFF}));
+            
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> store.getEndReason(0));
+            assertTrue(e.getMessage().contains("-1"), e.getMessage());
+        }
+    }
+    
+    /**
+     * Helper method to change bytes of a store file behind the store's back.
+     */
+    private static void writeAt(Path file, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PackedState class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Encoding a game records the same counts as its Supply and Players
+ * - The mutators move cards the way the game does
+ * - Fields at their maximum value round-trip, including ones that straddle longs
+ * - Equal positions hash and compare equal
+ */
+public class PackedStateTest {
+    
+    /**
+     * Test that an encoded game decodes to the counts in its objects,
+     * both at the start and at the end of the game.
+     */
+    @Test
+    public void testEncodeMatchesGame() {
+        Game game = new Game(7L);
+        long[] words = new long[PackedState.WORDS * 2];
+        PackedState.encode(game, words, 0);
+        assertMatches(game, words, 0);
+        
+        game.playGame();
+        PackedState.encode(game, words, PackedState.WORDS);
+        assertMatches(game, words, PackedState.WORDS);
+    }
+    
+    /**
+     * Test that buying, drawing, playing and cleanup move cards between fields.
+     */
+    @Test
+    public void testMutators() {
+        Game game = new Game(3L);
+        long[] words = new long[PackedState.WORDS];
+        PackedState.encode(game, words, 0);
+        int bitcoin = Supply.cardIndex("Bitcoin");
+        int framework = Supply.cardIndex("Framework");
+        
+        PackedState.buy(words, 0, 2, framework);
+        assertEquals(7, PackedState.supplyCount(words, 0, framework));
+        assertEquals(1, PackedState.pileCount(words, 0, 2, PackedState.DISCARD, framework));
+        
+        int hand = PackedState.pileCount(words, 0, 1, PackedState.HAND, bitcoin);
+        PackedState.playCrypto(words, 0, 1, bitcoin);
+        assertEquals(hand - 1, PackedState.pileCount(words, 0, 1, PackedState.HAND, bitcoin));
+        
+        PackedState.cleanup(words, 0, 1);
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            assertEquals(0, PackedState.pileCount(words, 0, 1, PackedState.HAND, t));
+        }
+        
+        int drawPile = PackedState.pileCount(words, 0, 1, PackedState.DRAW, bitcoin);
+        if (drawPile > 0) {
+            PackedState.draw(words, 0, 1, bitcoin);
+            assertEquals(drawPile - 1, PackedState.pileCount(words, 0, 1, PackedState.DRAW, bitcoin));
+            assertEquals(1, PackedState.pileCount(words, 0, 1, PackedState.HAND, bitcoin));
+        }
+        
+        PackedState.reshuffle(words, 0, 1);
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            assertEquals(0, PackedState.pileCount(words, 0, 1, PackedState.DISCARD, t));
+        }
+        
+        boolean player1ToMove = PackedState.isPlayer1ToMove(words, 0);
+        PackedState.endTurn(words, 0);
+        assertEquals(!player1ToMove, PackedState.isPlayer1ToMove(words, 0));
+    }
+    
+    /**
+     * Test that mutators refuse to take a count below zero.
+     */
+    @Test
+    public void testUnderflowThrows() {
+        long[] words = new long[PackedState.WORDS];
+        assertThrows(IllegalStateException.class,
+                     () -> PackedState.buy(words, 0, 1, 0));
+        assertThrows(IllegalStateException.class,
+                     () -> PackedState.draw(words, 0, 2, 3));
+    }
+    
+    /**
+     * Test that every field holds its maximum value and can be changed
+     * without disturbing its neighbours, which covers the fields that
+     * cross a long boundary.
+     */
+    @Test
+    public void testFieldsAtMaximum() {
+        long[] words = {0, -1L, -1L, -1L, 0};
+        int base = 1;
+        int[] expected = new int[PackedState.DECODED_LENGTH];
+        int[] pileMax = {31, 15, 15, 127, 63, 31};
+        int[] supplyMax = {15, 15, 15, 63, 63, 31};
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            expected[t] = supplyMax[t];
+            for (int seat = 1; seat <= 2; seat++) {
+                expected[field(seat, PackedState.DRAW, t)] = pileMax[t];
+                expected[field(seat, PackedState.HAND, t)] = 7;
+                expected[field(seat, PackedState.DISCARD, t)] = pileMax[t];
+            }
+        }
+        expected[PackedState.DECODED_LENGTH - 1] = 1;
+        assertDecodes(expected, words, base);
+        
+        // Empty every hand, then refill it from the draw pile
+        for (int seat = 1; seat <= 2; seat++) {
+            for (int t = 0; t < Supply.CARD_TYPES; t++) {
+                for (int i = 0; i < 7; i++) {
+                    PackedState.playCrypto(words, base, seat, t);
+                    expected[field(seat, PackedState.HAND, t)]--;
+                    assertDecodes(expected, words, base);
+                }
+                for (int i = 0; i < 7; i++) {
+                    PackedState.draw(words, base, seat, t);
+                    expected[field(seat, PackedState.DRAW, t)]--;
+                    expected[field(seat, PackedState.HAND, t)]++;
+                    assertDecodes(expected, words, base);
+                }
+            }
+        }
+        
+        // Full fields refuse to grow
+        assertThrows(IllegalStateException.class, () -> PackedState.buy(words, base, 1, 0));
+        assertThrows(IllegalStateException.class, () -> PackedState.draw(words, base, 2, 5));
+        assertThrows(IllegalStateException.class, () -> PackedState.cleanup(words, base, 1));
+        assertDecodes(expected, words, base);
+        assertEquals(0, words[0], "Nothing should be written before the state");
+        assertEquals(0, words[4], "Nothing should be written after the state");
+    }
+    
+    /**
+     * Test that identical positions compare and hash equal and different ones do not.
+     */
+    @Test
+    public void testHashAndEquals() {
+        long[] a = new long[PackedState.WORDS];
+        long[] b = new long[PackedState.WORDS * 2];
+        PackedState.encode(new Game(11L), a, 0);
+        PackedState.encode(new Game(11L), b, PackedState.WORDS);
+        
+        assertTrue(PackedState.equals(a, 0, b, PackedState.WORDS));
+        assertEquals(PackedState.hash(a, 0), PackedState.hash(b, PackedState.WORDS));
+        
+        PackedState.buy(b, PackedState.WORDS, 1, Supply.cardIndex("Method"));
+        assertFalse(PackedState.equals(a, 0, b, PackedState.WORDS));
+        assertNotEquals(PackedState.hash(a, 0), PackedState.hash(b, PackedState.WORDS));
+        assertTrue(PackedState.toString(b, PackedState.WORDS).contains("Method=13"));
+    }
+    
+    /**
+     * Checks every decoded field against the game's objects.
+     */
+    private static void assertMatches(Game game, long[] words, int base) {
+        int[] draw = new int[Supply.CARD_TYPES];
+        int[] hand = new int[Supply.CARD_TYPES];
+        int[] discard = new int[Supply.CARD_TYPES];
+        Player[] players = {game.getPlayer1(), game.getPlayer2()};
+        
+        for (int t = 0; t < Supply.CARD_TYPES; t++) {
+            assertEquals(game.getSupply().getCardCount(Supply.getCardName(t)),
+                         PackedState.supplyCount(words, base, t));
+        }
+        for (int seat = 1; seat <= 2; seat++) {
+            players[seat - 1].countCards(draw, hand, discard);
+            for (int t = 0; t < Supply.CARD_TYPES; t++) {
+                assertEquals(draw[t], PackedState.pileCount(words, base, seat, PackedState.DRAW, t));
+                assertEquals(hand[t], PackedState.pileCount(words, base, seat, PackedState.HAND, t));
+                assertEquals(discard[t], PackedState.pileCount(words, base, seat, PackedState.DISCARD, t));
+            }
+        }
+        assertEquals(game.getCurrentPlayer() == game.getPlayer1(),
+                     PackedState.isPlayer1ToMove(words, base));
+    }
+    
+    /**
+     * Gets the index of a pile count in the array filled by decode().
+     */
+    private static int field(int seat, int pile, int cardIndex) {
+        return Supply.CARD_TYPES * (1 + 3 * (seat - 1) + pile) + cardIndex;
+    }
+    
+    /**
+     * Checks that a state decodes to exactly the expected fields.
+     */
+    private static void assertDecodes(int[] expected, long[] words, int base) {
+        int[] decoded = new int[PackedState.DECODED_LENGTH];
+        PackedState.decode(words, base, decoded);
+        assertArrayEquals(expected, decoded);
+    }
+}
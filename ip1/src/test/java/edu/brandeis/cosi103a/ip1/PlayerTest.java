@@ -164,5 +164,92 @@ public class PlayerTest {
         assertEquals(5, player.getHand().size(), 
                     "Hand should have 5 cards after drawHand()");
     }
+    
+    /**
+     * Test that getOwnedAutomationPoints() counts the whole deck.
+     * 
+     * The starter deck has 3 Method cards worth 1 point each, and
+     * purchased automation cards add their value.
+     */
+    @Test
+    public void testOwnedAutomationPoints() {
+        Player player = new Player(createStarterDeck());
+        assertEquals(3, player.getOwnedAutomationPoints(),
+                    "Starter deck should own 3 automation points");
+        
+        player.addToDiscardPile(new Card("Framework", 8, 6, false));
+        player.addToDiscardPile(new Card("Bitcoin", 0, 1, true));
+        assertEquals(9, player.getOwnedAutomationPoints(),
+                    "Only automation cards should add points");
+    }
+    
+    /**
+     * Test that owned counts track purchases and played cryptos.
+     * 
+     * Played crypto cards leave the game, so they stop being owned.
+     */
+    @Test
+    public void testOwnedCounts() {
+        Player player = new Player(createStarterDeck());
+        int bitcoin = Supply.cardIndex("Bitcoin");
+        int method = Supply.cardIndex("Method");
+        assertEquals(7, player.getOwnedCount(bitcoin), "Starter deck should own 7 Bitcoin");
+        assertEquals(3, player.getOwnedCount(method), "Starter deck should own 3 Method");
+        
+        int played = player.playCryptos();
+        assertEquals(7 - played, player.getOwnedCount(bitcoin),
+                    "Played Bitcoins should no longer be owned");
+        
+        player.addToDiscardPile(new Card("Method", 2, 1, false));
+        assertEquals(4, player.getOwnedCount(method), "Bought Method should be owned");
+    }
+    
+    /**
+     * Test that draws are uniformly random.
+     * 
+     * With one Framework in a 10 card deck, it should be in the
+     * initial 5 card hand half of the time.
+     */
+    @Test
+    public void testDrawsAreUniform() {
+        int withFramework = 0;
+        int players = 4000;
+        for (int seed = 0; seed < players; seed++) {
+            List<Card> deck = createStarterDeck();
+            deck.set(0, new Card("Framework", 8, 6, false));
+            Player player = new Player(deck, new UniformRandomSource(seed));
+            for (Card card : player.getHand()) {
+                if (card.getName().equals("Framework")) {
+                    withFramework++;
+                }
+            }
+        }
+        
+        assertEquals(0.5, (double) withFramework / players, 0.03,
+                    "Framework should be in the opening hand half of the time");
+    }
+    
+    /**
+     * Test that the discard pile becomes the draw pile when it runs out,
+     * and that draws are reproducible for a fixed seed.
+     */
+    @Test
+    public void testRefillFromDiscardIsReproducible() {
+        Player first = new Player(createStarterDeck(), new UniformRandomSource(17));
+        Player second = new Player(createStarterDeck(), new UniformRandomSource(17));
+        
+        for (int turn = 0; turn < 6; turn++) {
+            for (Player player : new Player[] {first, second}) {
+                player.cleanup();
+                player.drawHand();
+                assertEquals(5, player.getHand().size(), "Hand should always refill to 5");
+                assertEquals(10, player.getHand().size() + player.getDrawPileSize()
+                             + player.getDiscardPileSize(), "No cards should be lost");
+            }
+            for (int i = 0; i < 5; i++) {
+                assertEquals(first.getHand().get(i).getName(), second.getHand().get(i).getName(),
+                            "Same seed should draw the same cards");
+            }
+        }
+    }
 }
-
@@ -0,0 +1,65 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Unit tests for the PolicyTrainer class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Training runs in parallel and reports every epoch
+ * - Training changes the weights and produces a valid strategy
+ * - Training is reproducible for a fixed seed
+ */
+public class PolicyTrainerTest {
+    
+    /**
+     * Test a short training run.
+     */
+    @Test
+    @Timeout(60)
+    public void testTrainingReportsEachEpoch() throws InterruptedException {
+        PolicyTrainer trainer = new PolicyTrainer(2, 100, 50, 0.5, 3);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        
+        LinearBuyStrategy strategy = trainer.train(2, new PrintStream(log));
+        
+        String output = log.toString();
+        assertTrue(output.contains("epoch 1:") && output.contains("epoch 2:"),
+                  "Each epoch should be reported");
+        assertTrue(output.contains("games/sec") && output.contains("win rate vs greedy"),
+                  "Reports should include throughput and win rate");
+        assertNotEquals(LinearBuyStrategy.costOrdered(), strategy, "Training should change the weights");
+        assertTrue(trainer.getLastWinRate() >= 0 && trainer.getLastWinRate() <= 1,
+                  "Win rate should be a fraction");
+    }
+    
+    /**
+     * Test that the same seed trains the same weights, regardless of
+     * how threads are scheduled.
+     */
+    @Test
+    @Timeout(60)
+    public void testTrainingIsReproducible() throws InterruptedException {
+        PrintStream quiet = new PrintStream(new ByteArrayOutputStream());
+        
+        LinearBuyStrategy first = new PolicyTrainer(2, 60, 10, 0.5, 9).train(1, quiet);
+        LinearBuyStrategy second = new PolicyTrainer(2, 60, 10, 0.5, 9).train(1, quiet);
+        
+        assertEquals(first, second, "Same seed should give the same weights");
+    }
+    
+    /**
+     * Test that the greedy strategy wins about half its games against itself.
+     */
+    @Test
+    public void testGreedyAgainstGreedy() {
+        double winRate = PolicyTrainer.winRateAgainstGreedy(new GreedyBuyStrategy(), 200, 0);
+        
+        assertTrue(winRate > 0.3 && winRate < 0.7, "Greedy mirror match should be even, was " + winRate);
+    }
+}
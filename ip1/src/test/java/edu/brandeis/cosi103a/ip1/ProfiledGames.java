@@ -0,0 +1,33 @@
+package edu.brandeis.cosi103a.ip1;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jdk.jfr.Recording;
+
+/**
+ * Plays one game with playGame() and one with step() while recording the
+ * game JFR events, for a test JVM started with -Dip1.profile=true.
+ * 
+ * Usage: ProfiledGames recordingFile
+ */
+public class ProfiledGames {
+    
+    public static void main(String[] args) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable("edu.brandeis.cosi103a.ip1.GameStart");
+            recording.enable("edu.brandeis.cosi103a.ip1.GameEnd");
+            recording.start();
+            
+            new Game(1).playGame();
+            Game stepped = new Game(2);
+            while (stepped.step()) {
+                // Drive the game one turn at a time
+            }
+            stepped.step();
+            
+            recording.stop();
+            recording.dump(Path.of(args[0]));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Unit tests for the QuantileSketch class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Quantiles of a known distribution are accurate
+ * - Merged sketches answer like a single sketch
+ * - Empty sketches and extreme quantiles behave sensibly
+ */
+public class QuantileSketchTest {
+    
+    /**
+     * Test quantiles of the values 0 to 99999 added in random order.
+     */
+    @Test
+    public void testUniformQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(100);
+        Random random = new Random(5);
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            sketch.add(random.nextInt(n));
+        }
+        
+        assertEquals(n, sketch.getCount(), "Sketch should count every value");
+        assertEquals(0.5 * n, sketch.quantile(0.5), 0.01 * n, "Median should be within 1%");
+        assertEquals(0.99 * n, sketch.quantile(0.99), 0.005 * n, "p99 should be within 0.5%");
+        assertEquals(0.001 * n, sketch.quantile(0.001), 0.001 * n, "p0.1 should be accurate");
+    }
+    
+    /**
+     * Test that merging sketches of two halves matches one sketch.
+     */
+    @Test
+    public void testMergedSketchMatches() {
+        QuantileSketch whole = new QuantileSketch(100);
+        QuantileSketch left = new QuantileSketch(100);
+        QuantileSketch right = new QuantileSketch(100);
+        for (int i = 0; i < 50000; i++) {
+            whole.add(i);
+            (i % 2 == 0 ? left : right).add(i);
+        }
+        left.merge(right);
+        
+        assertEquals(whole.getCount(), left.getCount(), "Counts should match");
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+            assertEquals(whole.quantile(q), left.quantile(q), 500,
+                        "Quantile " + q + " should match");
+        }
+    }
+    
+    /**
+     * Test empty sketches and the 0 and 1 quantiles.
+     */
+    @Test
+    public void testEdgeCases() {
+        QuantileSketch sketch = new QuantileSketch(50);
+        assertTrue(Double.isNaN(sketch.quantile(0.5)), "Empty sketch should return NaN");
+        
+        sketch.add(7);
+        assertEquals(7, sketch.quantile(0.5), "Single value should be every quantile");
+        
+        sketch.add(3);
+        sketch.add(11);
+        assertEquals(3, sketch.quantile(0), "Quantile 0 should be the minimum");
+        assertEquals(11, sketch.quantile(1), "Quantile 1 should be the maximum");
+    }
+}
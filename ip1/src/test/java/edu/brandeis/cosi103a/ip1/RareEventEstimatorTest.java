@@ -0,0 +1,72 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RareEventEstimator class in Automation: The Game.
+ * 
+ * Tests verify:
+ * - Biased proposals still estimate known probabilities correctly
+ * - Variance and effective sample size are reported
+ * - The adaptive search produces a usable estimate
+ */
+public class RareEventEstimatorTest {
+    
+    /**
+     * Short games keep these tests fast.
+     */
+    private static final EndPolicy SHORT_GAMES = new EndPolicy(20, 0, 0, 0);
+    
+    /**
+     * Test that a biased starting player still gives a 50% estimate.
+     * 
+     * Player 1 starts half the time in a normal game. Sampling with
+     * an 80% start probability must be corrected by the weights.
+     */
+    @Test
+    public void testBiasedStartIsCorrected() {
+        RareEventEstimator estimator = new RareEventEstimator(SHORT_GAMES,
+                game -> game.getStartingPlayer() == game.getPlayer1());
+        
+        RareEventEstimator.Estimate estimate = estimator.estimate(0, 0, 0.8, 2000, 42);
+        
+        assertEquals(0.5, estimate.getProbability(), 4 * estimate.getStandardError(),
+                    "Weighted estimate should match the normal probability");
+        assertTrue(estimate.getHits() > 1400, "Proposal should hit the event more often");
+        assertTrue(estimate.getVariance() > 0, "Variance should be reported");
+    }
+    
+    /**
+     * Test that tilted draws do not bias an event that always happens.
+     */
+    @Test
+    public void testTiltedDrawsAreUnbiased() {
+        RareEventEstimator estimator = new RareEventEstimator(SHORT_GAMES, game -> true);
+        
+        RareEventEstimator.Estimate estimate = estimator.estimate(-0.05, 0.05, 0.5, 2000, 7);
+        
+        assertEquals(1.0, estimate.getProbability(), 0.1,
+                    "Mean likelihood ratio should be close to 1");
+        assertTrue(estimate.getEffectiveSampleSize() > 0,
+                  "Effective sample size should be reported");
+    }
+    
+    /**
+     * Test that the adaptive search returns an estimate for its final batch.
+     */
+    @Test
+    @Timeout(60)
+    public void testAdaptiveEstimate() {
+        RareEventEstimator estimator = new RareEventEstimator(SHORT_GAMES,
+                game -> game.getPlayer2().getOwnedAutomationPoints()
+                        - game.getPlayer1().getOwnedAutomationPoints() >= 6);
+        
+        RareEventEstimator.Estimate estimate = estimator.estimateAdaptive(200, 1000, 11);
+        
+        assertEquals(1000, estimate.getGames(), "Final batch should use the requested games");
+        assertTrue(estimate.getProbability() >= 0 && estimate.getProbability() <= 1,
+                  "Estimate should be a probability");
+    }
+}
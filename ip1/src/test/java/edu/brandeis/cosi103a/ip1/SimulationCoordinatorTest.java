@@ -0,0 +1,82 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+
+/**
+ * Unit tests for the SimulationCoordinator class in Automation: The Game.
+ * 
+ * These tests start real worker JVMs on this machine.
+ * 
+ * Tests verify:
+ * - Results merged from several workers match a single-process run
+ * - A crashed worker's remaining seeds are reassigned and counted once
+ * - A worker that stops sending is timed out and its seeds reassigned
+ */
+public class SimulationCoordinatorTest {
+    
+    /**
+     * Helper method to build a classpath with the main and test classes.
+     * 
+     * @return the classpath for worker JVMs
+     */
+    private String testClasspath() throws Exception {
+        String mainClasses = new File(SimulationWorker.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI()).getPath();
+        String testClasses = new File(CrashingWorker.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI()).getPath();
+        return mainClasses + File.pathSeparator + testClasses;
+    }
+    
+    /**
+     * Test that two workers produce the same tally as one process.
+     */
+    @Test
+    @Timeout(60)
+    public void testWorkersMatchSingleProcess() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator(
+                2, 20, testClasspath(), SimulationWorker.class.getName());
+        
+        GameStatistics stats = coordinator.run(0, 100);
+        
+        GameStatisticsTest.assertSameCounts(GameStatisticsTest.statsForSeeds(0, 100), stats);
+    }
+    
+    /**
+     * Test that a worker crash does not lose or double count seeds.
+     * 
+     * The first worker reports 25 seeds and exits; the rest of its
+     * slice must be replayed by a new worker.
+     */
+    @Test
+    @Timeout(60)
+    public void testCrashedWorkerIsReassigned() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator(
+                2, 10, testClasspath(), CrashingWorker.class.getName());
+        
+        GameStatistics stats = coordinator.run(0, 100);
+        
+        GameStatisticsTest.assertSameCounts(GameStatisticsTest.statsForSeeds(0, 100), stats);
+    }
+    
+    /**
+     * Test that a worker which stays connected but stops sending is
+     * treated as failed once the read timeout passes.
+     * 
+     * The first worker reports 25 seeds and then sleeps; without a read
+     * timeout the coordinator would wait for it forever.
+     */
+    @Test
+    @Timeout(60)
+    public void testStalledWorkerIsReassigned() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator(
+                2, 10, 2000, testClasspath(), StallingWorker.class.getName());
+        
+        GameStatistics stats = coordinator.run(0, 100);
+        
+        GameStatisticsTest.assertSameCounts(GameStatisticsTest.statsForSeeds(0, 100), stats);
+    }
+}
@@ -0,0 +1,147 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the Simulations and GameRecord classes in Automation: The Game.
+ * 
+ * Tests verify:
+ * - A range streams one record per seed, in seed order
+ * - Records agree with games played directly
+ * - Early-turn queries stop playing once they are answered
+ * - The win rate collector matches GameStatistics
+ */
+public class SimulationsTest {
+    
+    /**
+     * Test that a range produces every seed exactly once.
+     */
+    @Test
+    public void testRangeCoversSeeds() {
+        List<Long> seeds = Simulations.range(5, 1005)
+                .map(GameRecord::getSeed)
+                .collect(Collectors.toList());
+        
+        assertEquals(1000, seeds.size());
+        for (int i = 0; i < seeds.size(); i++) {
+            assertEquals(5 + i, seeds.get(i), "Seeds should stream in order");
+        }
+        assertEquals(0, Simulations.range(3, 3).count(), "An empty range has no games");
+    }
+    
+    /**
+     * Test that a record's outcome matches the same game played directly.
+     */
+    @Test
+    public void testRecordMatchesGame() {
+        Game game = new Game(42);
+        game.playGame();
+        GameRecord record = new GameRecord(42, new Game(42));
+        
+        assertEquals(game.getTurnsPlayed(), record.getTurns());
+        assertEquals(game.getWinner() == game.getPlayer1() ? 1 : 2, record.getWinner());
+        assertEquals(game.getPlayer1().getTotalAutomationPoints(), record.getPoints(1));
+        assertEquals(game.getPlayer2().getTotalAutomationPoints(), record.getPoints(2));
+        assertEquals(game.getEndReason(), record.getEndReason());
+        
+        int[] purchases = new int[Supply.CARD_TYPES];
+        for (int turn = 0; turn < record.getTurns(); turn++) {
+            String card = record.getPurchase(turn);
+            if (card != null && record.getSeat(turn) == 1) {
+                purchases[Supply.cardIndex(card)]++;
+            }
+        }
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            assertEquals(game.getPurchaseCount(1, i), purchases[i],
+                         "Per-turn buys should add up to the purchase counts");
+        }
+        assertNull(record.getPurchase(record.getTurns() + 5), "No buys after the game ends");
+    }
+    
+    /**
+     * Test that asking about early turns does not play the whole game.
+     */
+    @Test
+    public void testEarlyQueryStopsPlaying() {
+        Game game = new Game(8);
+        GameRecord record = new GameRecord(8, game);
+        
+        int turn = record.firstPurchaseTurn(1, "Framework", 10);
+        assertTrue(game.getTurnsPlayed() <= 10, "Only the first 10 turns should be played");
+        if (turn >= 0) {
+            assertEquals("Framework", record.getPurchase(turn));
+            assertEquals(1, record.getSeat(turn));
+        }
+        assertNull(game.getEndReason(), "The game should not be finished");
+    }
+    
+    /**
+     * Test that the win rate collector agrees with GameStatistics.
+     */
+    @Test
+    public void testWinRateMatchesStatistics() {
+        double winRate = Simulations.range(0, 40).collect(Simulations.winRate(1));
+        GameStatistics stats = Simulations.range(0, 40)
+                .map(GameRecord::getGame)
+                .collect(GameStatistics.collector());
+        
+        assertEquals(stats.getWinRate(1), winRate, 1e-12);
+        GameStatisticsTest.assertSameCounts(GameStatisticsTest.statsForSeeds(0, 40), stats);
+    }
+    
+    /**
+     * Test that a filtered query only counts the games that pass.
+     */
+    @Test
+    public void testFilteredQuery() {
+        long early = Simulations.range(0, 200)
+                .filter(r -> r.boughtBefore(1, "Framework", 20))
+                .count();
+        long checked = 0;
+        for (long seed = 0; seed < 200; seed++) {
+            GameRecord record = new GameRecord(seed, new Game(seed));
+            int first = record.firstPurchaseTurn(1, "Framework", Integer.MAX_VALUE);
+            if (first >= 0 && first < 20) {
+                checked++;
+            }
+        }
+        
+        assertEquals(checked, early);
+        assertTrue(Double.isNaN(Simulations.range(0, 50)
+                .filter(r -> false)
+                .collect(Simulations.winRate(2))), "No games should give NaN");
+    }
+    
+    /**
+     * Test that a misspelled card name is rejected rather than matching
+     * the turns where nothing was bought.
+     */
+    @Test
+    public void testUnknownCardIsRejected() {
+        BuyStrategy buyNothing = (supply, player, budget) -> null;
+        GameRecord record = new GameRecord(5, new Game(EndPolicy.standard(),
+                new UniformRandomSource(5), buyNothing, buyNothing));
+        
+        assertThrows(IllegalArgumentException.class,
+                     () -> record.boughtBefore(1, "Frameworks", 10));
+        assertThrows(IllegalArgumentException.class,
+                     () -> record.firstPurchaseTurn(2, "Frameworks", 10));
+        assertFalse(record.boughtBefore(1, "Framework", 10));
+    }
+    
+    /**
+     * Test that a negative turn is rejected, while turns after the end
+     * of the game have no purchase.
+     */
+    @Test
+    public void testPurchaseTurnBounds() {
+        GameRecord record = new GameRecord(6, new Game(6));
+        
+        assertThrows(IllegalArgumentException.class, () -> record.getPurchase(-1));
+        assertNull(record.getPurchase(record.getTurns()));
+    }
+}
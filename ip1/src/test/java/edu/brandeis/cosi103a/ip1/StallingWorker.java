@@ -0,0 +1,32 @@
+package edu.brandeis.cosi103a.ip1;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * A SimulationWorker stand-in that stops sending partway through its
+ * first slice without closing the connection.
+ * 
+ * When started at seed 0 it reports the first 25 seeds and then sleeps
+ * until it is killed. Workers started at any other seed behave normally,
+ * so a reassigned slice completes.
+ */
+public class StallingWorker {
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long fromSeed = Long.parseLong(args[3]);
+        if (fromSeed != 0) {
+            SimulationWorker.main(args);
+            return;
+        }
+        
+        Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeInt(Integer.parseInt(args[2]));
+        SimulationWorker.streamResults(out, fromSeed, fromSeed + 25, Integer.parseInt(args[5]));
+        out.flush();
+        Thread.sleep(Long.MAX_VALUE);
+    }
+}
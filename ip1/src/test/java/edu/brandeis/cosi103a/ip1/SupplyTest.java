@@ -49,6 +49,19 @@ public class SupplyTest {
                   "Bitcoin should still be available after one purchase");
     }
     
+    /**
+     * Test that getCardCount() reports one fewer card after a purchase.
+     */
+    @Test
+    public void testBuyingCardDecrementsCardCount() {
+        assertEquals(60, supply.getCardCount("Bitcoin"), "Bitcoin should start with 60 cards");
+        
+        supply.buyCard("Bitcoin");
+        
+        assertEquals(59, supply.getCardCount("Bitcoin"),
+                    "Bitcoin count should drop to 59");
+    }
+    
     /**
      * Test that isGameOver() returns false initially.
      * 
@@ -158,5 +171,35 @@ public class SupplyTest {
         assertTrue(supply.isAvailable("Module"), "Module should still be available");
         assertTrue(supply.isAvailable("Bitcoin"), "Bitcoin should still be available");
     }
+    
+    /**
+     * Test that getEmptyPileCount() tracks exhausted piles.
+     */
+    @Test
+    public void testEmptyPileCount() {
+        assertEquals(0, supply.getEmptyPileCount(), "No piles should be empty initially");
+        
+        for (int i = 0; i < 8; i++) {
+            supply.buyCard("Module");
+        }
+        assertEquals(1, supply.getEmptyPileCount(), "Module pile should be empty");
+        
+        // Buying from an empty pile should not count it twice
+        supply.buyCard("Module");
+        assertEquals(1, supply.getEmptyPileCount(), "Empty pile should only be counted once");
+    }
+    
+    /**
+     * Test that card indexes and names map to each other.
+     */
+    @Test
+    public void testCardIndex() {
+        for (int i = 0; i < Supply.CARD_TYPES; i++) {
+            assertEquals(i, Supply.cardIndex(Supply.getCardName(i)),
+                        "Index should round trip through the name");
+        }
+        assertEquals(2, Supply.cardIndex("Framework"), "Framework should be index 2");
+        assertEquals(-1, Supply.cardIndex("Unknown"), "Unknown cards should have index -1");
+    }
 }
 
@@ -0,0 +1,190 @@
+package edu.brandeis.cosi103a.ip1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of a complete game with TurnProfiler off and on, against
+ * a baseline with no profiler hooks at all.
+ * 
+ * Each benchmark runs in its own JVM with ip1.profile set, so
+ * TurnProfiler.ENABLED is a constant there. The baseline plays the same
+ * game as Game.playGame() through a copy of its turn loop with the hooks
+ * left out (the guarded reshuffle hook inside Player remains, but it
+ * only runs on reshuffles). The disabled profiler costs nothing if
+ * profilerDisabled matches baseline.
+ * 
+ * Run all three with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main TurnProfilerBenchmark"
+ * 
+ * or compare disabled against baseline, failing if it is more than
+ * TOLERANCE slower, with the command below. Game times on a shared
+ * machine can drift by 20% or more between forks, so it runs ROUNDS
+ * alternating pairs of single forks and gates on the median ratio.
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath edu.brandeis.cosi103a.ip1.TurnProfilerBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TurnProfilerBenchmark {
+    
+    /** How much slower than baseline the disabled profiler may be. */
+    static final double TOLERANCE = 0.02;
+    
+    /** Number of baseline and profilerDisabled pairs main() runs. */
+    static final int ROUNDS = 15;
+    
+    private long seed;
+    
+    /**
+     * Plays one seeded game through a turn loop with no profiler hooks.
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-Dip1.profile=false")
+    public int[] baseline() {
+        return playWithoutHooks(seed++);
+    }
+    
+    /**
+     * Plays one seeded game with profiling compiled out.
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-Dip1.profile=false")
+    public Player profilerDisabled() {
+        return new Game(seed++).playGame();
+    }
+    
+    /**
+     * Plays one seeded game with every 16th turn timed.
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-Dip1.profile=true")
+    public Player profilerEnabled() {
+        return new Game(seed++).playGame();
+    }
+    
+    /**
+     * Plays the same game as new Game(seed).playGame(), using the same
+     * random choices in the same order, without any TurnProfiler calls.
+     *
+     * @param seed the game's seed
+     * @return the turns played, each player's final automation points and
+     *         player 1's Framework purchases
+     */
+    static int[] playWithoutHooks(long seed) {
+        EndPolicy endPolicy = EndPolicy.standard();
+        BuyStrategy strategy = new GreedyBuyStrategy();
+        RandomSource random = new UniformRandomSource(seed);
+        Supply supply = new Supply();
+        Player player1 = new Player(starterDeck(), random.forSeat(1));
+        Player player2 = new Player(starterDeck(), random.forSeat(2));
+        Player current = random.player1Starts() ? player1 : player2;
+        Player other = current == player1 ? player2 : player1;
+        int[] player1Purchases = new int[Supply.CARD_TYPES];
+        int[] player2Purchases = new int[Supply.CARD_TYPES];
+        int turnsPlayed = 0;
+        int turnsSincePurchase = 0;
+        
+        while (endPolicy.check(supply, Math.abs(player1.getOwnedAutomationPoints()
+                - player2.getOwnedAutomationPoints()), turnsPlayed, turnsSincePurchase) == null) {
+            int money = current.playCryptos();
+            String cardName = strategy.chooseCard(supply, current, money);
+            if (cardName != null) {
+                int cost = supply.getCardCost(cardName);
+                if (!supply.isAvailable(cardName) || cost < 0 || cost > money) {
+                    throw new IllegalStateException("Strategy chose " + cardName);
+                }
+                Card card = supply.buyCard(cardName);
+                current.addToDiscardPile(card);
+                int[] purchases = current == player1 ? player1Purchases : player2Purchases;
+                purchases[Supply.cardIndex(card.getName())]++;
+                turnsSincePurchase = 0;
+            } else {
+                turnsSincePurchase++;
+            }
+            current.cleanup();
+            current.drawHand();
+            
+            Player temp = current;
+            current = other;
+            other = temp;
+            turnsPlayed++;
+        }
+        return new int[] {turnsPlayed, player1.getTotalAutomationPoints(),
+                          player2.getTotalAutomationPoints(),
+                          player1Purchases[Supply.cardIndex("Framework")]};
+    }
+    
+    private static List<Card> starterDeck() {
+        List<Card> deck = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            deck.add(new Card("Bitcoin", 0, 1, true));
+        }
+        for (int i = 0; i < 3; i++) {
+            deck.add(new Card("Method", 2, 1, false));
+        }
+        return deck;
+    }
+    
+    /**
+     * Runs baseline and profilerDisabled in alternating single-fork rounds
+     * and reports how they compare. Exits with status 1 if the median of
+     * the per-round ratios shows the disabled profiler more than TOLERANCE
+     * slower than the baseline.
+     */
+    public static void main(String[] args) throws RunnerException {
+        double[] ratios = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            // Alternate which runs first so slow drift in the machine's speed cancels out
+            boolean baselineFirst = round % 2 == 0;
+            double first = score(baselineFirst ? "baseline" : "profilerDisabled");
+            double second = score(baselineFirst ? "profilerDisabled" : "baseline");
+            double baseline = baselineFirst ? first : second;
+            double disabled = baselineFirst ? second : first;
+            ratios[round] = disabled / baseline;
+            System.out.printf("round %d: baseline %.1f us/game, profiler disabled %.1f us/game%n",
+                              round + 1, baseline, disabled);
+        }
+        
+        Arrays.sort(ratios);
+        double overhead = ratios[ROUNDS / 2] - 1;
+        System.out.printf("median overhead %+.2f%% (range %+.2f%% to %+.2f%%) over %d rounds%n",
+                          overhead * 100, (ratios[0] - 1) * 100, (ratios[ROUNDS - 1] - 1) * 100, ROUNDS);
+        if (overhead > TOLERANCE) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Runs one benchmark in a single fork.
+     *
+     * @return its average time per game in microseconds
+     */
+    private static double score(String benchmark) throws RunnerException {
+        RunResult result = new Runner(new OptionsBuilder()
+                .include(TurnProfilerBenchmark.class.getSimpleName() + "." + benchmark + "$")
+                .forks(1)
+                .build()).runSingle();
+        return result.getPrimaryResult().getScore();
+    }
+}
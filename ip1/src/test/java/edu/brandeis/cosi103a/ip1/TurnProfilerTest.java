@@ -0,0 +1,123 @@
+package edu.brandeis.cosi103a.ip1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit tests for the TurnProfiler class in Automation: The Game.
+ * 
+ * Profiling is off in the test JVM, so these tests drive the profiler
+ * directly rather than through a game, except for the JFR event test,
+ * which plays games in a separate JVM with profiling on.
+ * 
+ * Tests verify:
+ * - One turn in SAMPLE_EVERY is sampled
+ * - Recorded phases appear in the report
+ * - The benchmark baseline plays the same games as Game
+ * - Games emit GameStart and GameEnd once, whether run by playGame() or step()
+ */
+public class TurnProfilerTest {
+    
+    /**
+     * Test that exactly one of every SAMPLE_EVERY turns is sampled.
+     */
+    @Test
+    public void testSampling() {
+        int sampled = 0;
+        for (int i = 0; i < TurnProfiler.SAMPLE_EVERY * 3; i++) {
+            TurnProfiler profiler = TurnProfiler.startTurn();
+            assertSame(profiler, TurnProfiler.currentTurn(),
+                      "currentTurn() should match the turn that was started");
+            if (profiler != null) {
+                sampled++;
+            }
+        }
+        
+        assertEquals(3, sampled, "One turn in SAMPLE_EVERY should be sampled");
+    }
+    
+    /**
+     * Test that recorded timings are reported.
+     */
+    @Test
+    public void testReport() {
+        TurnProfiler.reset();
+        TurnProfiler profiler = null;
+        while (profiler == null) {
+            profiler = TurnProfiler.startTurn();
+        }
+        long time = System.nanoTime();
+        time = profiler.record(TurnProfiler.Phase.PLAY_CRYPTOS, time);
+        profiler.record(TurnProfiler.Phase.BUY, time);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TurnProfiler.report(new PrintStream(bytes));
+        String report = bytes.toString();
+        
+        assertTrue(report.matches("(?s).*PLAY_CRYPTOS\\s+1\\s.*"), "PLAY_CRYPTOS should have 1 sample");
+        assertTrue(report.matches("(?s).*BUY\\s+1\\s.*"), "BUY should have 1 sample");
+        assertTrue(report.matches("(?s).*CLEANUP\\s+0\\s.*"), "CLEANUP should have no samples");
+    }
+    
+    /**
+     * Test that the benchmark's hook-free baseline plays the same games
+     * as Game, so comparing the two measures only the hooks.
+     */
+    @Test
+    public void testBenchmarkBaselineMatchesGame() {
+        for (long seed = 0; seed < 20; seed++) {
+            Game game = new Game(seed);
+            game.playGame();
+            int[] expected = {game.getTurnsPlayed(), game.getPlayer1().getTotalAutomationPoints(),
+                              game.getPlayer2().getTotalAutomationPoints(),
+                              game.getPurchaseCount(1, Supply.cardIndex("Framework"))};
+            
+            assertArrayEquals(expected, TurnProfilerBenchmark.playWithoutHooks(seed),
+                              "Seed " + seed + " should play the same game");
+        }
+    }
+    
+    /**
+     * Test that a game driven by step() emits the same JFR events as one
+     * run by playGame(), and that calling step() after the end adds none.
+     */
+    @Test
+    @Timeout(60)
+    public void testStepEmitsGameEvents(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("games.jfr");
+        String classpath = new File(Game.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                + File.pathSeparator
+                + new File(ProfiledGames.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-Dip1.profile=true", "-cp", classpath,
+                                             ProfiledGames.class.getName(), file.toString())
+                .inheritIO().start();
+        assertEquals(0, process.waitFor(), "Profiled JVM should exit cleanly");
+        
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        int starts = 0;
+        int ends = 0;
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.equals("edu.brandeis.cosi103a.ip1.GameStart")) {
+                starts++;
+            } else if (name.equals("edu.brandeis.cosi103a.ip1.GameEnd")) {
+                ends++;
+                assertTrue(event.getInt("turns") > 0, "GameEnd should record the turns played");
+            }
+        }
+        assertEquals(2, starts, "Each game should emit one GameStart");
+        assertEquals(2, ends, "Each game should emit one GameEnd");
+    }
+}